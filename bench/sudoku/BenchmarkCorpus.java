@@ -0,0 +1,104 @@
+package sudoku;
+
+import java.util.SplittableRandom;
+
+/**
+ * The fixed puzzles and seeds the benchmarks run against, so results can be compared between commits.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class BenchmarkCorpus {
+    /**
+     * Puzzles which can be solved with singles alone.
+     */
+    public static final String[] EASY = {
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300",
+            "200080300060070084030500209000105408000000000402706000301007040720040060004010003",
+            "000000907000420180000705026100904000050000040000507009920108000034059000507000000"
+    };
+
+    /**
+     * Puzzles known to be very hard for both people and backtracking solvers.
+     */
+    public static final String[] HARD = {
+            "800000000003600000070090200050007000000045700000100030001000068008500010090000400",
+            "100007090030020008009600500005300900010080002600004000300000010040000007007000300",
+            "400000805030000000000700000020000060000080400000010000000603070500200000104000000",
+            "000000000000003085001020000000507000004000100090000000500000073002010000000040009"
+    };
+
+    /**
+     * The seed every generation benchmark starts from.
+     */
+    public static final long SEED = 20240101L;
+
+    /**
+     * The amounts of numbers left for each difficulty of the command line game.
+     */
+    public static final int[] LEVELS = {35, 30, 26, 22};
+
+    /**
+     * This class only has static members, so it should not be constructed.
+     */
+    private BenchmarkCorpus() {}
+
+    /**
+     * @param lines puzzles in the line format
+     * @return the puzzles as boards
+     */
+    public static SudokuBoard[] boards(String[] lines) {
+        SudokuBoard[] boards = new SudokuBoard[lines.length];
+        for (int i = 0; i < lines.length; i++)
+            boards[i] = BoardCodec.fromLine(lines[i]);
+
+        return boards;
+    }
+
+    /**
+     * @param line a puzzle in the line format
+     * @return the puzzle in the format read by {@link SudokuBoard#SudokuBoard(String)}
+     */
+    public static String toGrid(String line) {
+        StringBuilder grid = new StringBuilder();
+
+        for (int i = 0; i < 9; i++) {
+            if (i == 3 || i == 6)
+                grid.append("---------------------\n");
+
+            for (int j = 0; j < 9; j++) {
+                if (j == 3 || j == 6)
+                    grid.append("| ");
+
+                grid.append(line.charAt(i * 9 + j));
+                grid.append(j < 8 ? " " : "\n");
+            }
+        }
+
+        return grid.toString();
+    }
+
+    /**
+     * Finds the first seed (counting up from {@link #SEED}) from which a puzzle with the numbers left can be generated,
+     * so generation benchmarks measure the same successful work every time.
+     * @param solution the full board the puzzle is generated from
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @return a seed for which generatePuzzle succeeds
+     */
+    public static long workingSeed(SudokuBoard solution, int numbersLeft) {
+        for (long seed = SEED; ; seed++) {
+            try {
+                solution.generatePuzzle(numbersLeft, new SplittableRandom(seed));
+                return seed;
+            } catch (IllegalArgumentException ignored) {}
+        }
+    }
+
+    /**
+     * @return the full board every generation benchmark starts from
+     */
+    public static SudokuBoard solution() {
+        SudokuBoard board = new SudokuBoard();
+        board.generateBoard(new SplittableRandom(SEED));
+        return board;
+    }
+}
@@ -0,0 +1,56 @@
+package sudoku;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the basic operations of a board: checking it, transforming it, and reading and printing it.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private SudokuBoard puzzle;
+    private SudokuBoard solution;
+    private String grid;
+
+    @Setup
+    public void setup() {
+        puzzle = BoardCodec.fromLine(BenchmarkCorpus.HARD[0]);
+        solution = puzzle.solved(SolverEngine.DANCING_LINKS);
+        grid = BenchmarkCorpus.toGrid(BenchmarkCorpus.HARD[0]);
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return solution.isValid();
+    }
+
+    @Benchmark
+    public SudokuBoard flip() {
+        solution.flip();
+        return solution;
+    }
+
+    @Benchmark
+    public SudokuBoard mirror() {
+        solution.mirror();
+        return solution;
+    }
+
+    @Benchmark
+    public SudokuBoard parse() {
+        return new SudokuBoard(grid);
+    }
+
+    @Benchmark
+    public String print() {
+        return puzzle.toString();
+    }
+}
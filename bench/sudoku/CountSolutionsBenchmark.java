@@ -0,0 +1,41 @@
+package sudoku;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks counting the solutions of the easy and hard puzzles of the corpus (up to 2, the uniqueness check the
+ * generators make for every removal). Counting always uses dancing links, so unlike {@link SolverBenchmark} there is
+ * no engine to pick.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CountSolutionsBenchmark {
+    @Param({"EASY", "HARD"})
+    public String corpus;
+
+    private SudokuBoard[] puzzles;
+    private int next;
+
+    @Setup
+    public void setup() {
+        puzzles = BenchmarkCorpus.boards(corpus.equals("EASY") ? BenchmarkCorpus.EASY : BenchmarkCorpus.HARD);
+    }
+
+    /**
+     * Counts the solutions of the next puzzle of the corpus, so every puzzle gets the same share of the measurement.
+     */
+    @Benchmark
+    public int countSolutions() {
+        SudokuBoard puzzle = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        return puzzle.countSolutions(2);
+    }
+}
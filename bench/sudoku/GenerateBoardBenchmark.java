@@ -0,0 +1,33 @@
+package sudoku;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks filling a full board. Every invocation starts from the same seed, so the same work is measured every
+ * time.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerateBoardBenchmark {
+    private SudokuBoard board;
+
+    @Setup
+    public void setup() {
+        board = new SudokuBoard();
+    }
+
+    @Benchmark
+    public SudokuBoard generateBoard() {
+        board.generateBoard(new SplittableRandom(BenchmarkCorpus.SEED));
+        return board;
+    }
+}
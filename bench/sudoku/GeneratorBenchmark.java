@@ -0,0 +1,38 @@
+package sudoku;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks generating puzzles at each difficulty of the command line game from the same full board (filling the
+ * board is benchmarked on its own in {@link GenerateBoardBenchmark}, since it does not depend on the numbers left).
+ * Every invocation starts from the same seed, so the same work is measured every time.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+    @Param({"35", "30", "26", "22"})
+    public int numbersLeft;
+
+    private SudokuBoard solution;
+    private long puzzleSeed;
+
+    @Setup
+    public void setup() {
+        solution = BenchmarkCorpus.solution();
+        puzzleSeed = BenchmarkCorpus.workingSeed(solution, numbersLeft);
+    }
+
+    @Benchmark
+    public SudokuBoard generatePuzzle() {
+        return solution.generatePuzzle(numbersLeft, new SplittableRandom(puzzleSeed));
+    }
+}
@@ -0,0 +1,43 @@
+package sudoku;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks solving the easy and hard puzzles of the corpus with each engine (counting solutions is benchmarked on
+ * its own in {@link CountSolutionsBenchmark}, since it does not depend on the engine).
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({"EASY", "HARD"})
+    public String corpus;
+
+    @Param({"BACKTRACKING", "DANCING_LINKS", "PROPAGATION"})
+    public SolverEngine engine;
+
+    private SudokuBoard[] puzzles;
+    private int next;
+
+    @Setup
+    public void setup() {
+        puzzles = BenchmarkCorpus.boards(corpus.equals("EASY") ? BenchmarkCorpus.EASY : BenchmarkCorpus.HARD);
+    }
+
+    /**
+     * Solves the next puzzle of the corpus, so every puzzle gets the same share of the measurement.
+     */
+    @Benchmark
+    public SudokuBoard solve() {
+        SudokuBoard puzzle = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        return puzzle.solved(engine);
+    }
+}
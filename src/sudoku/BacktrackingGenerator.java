@@ -0,0 +1,67 @@
+package sudoku;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The original generator, and the default one. Full boards are made by backtracking along a random path through the
+ * cells, and puzzles are made by removing cells in symmetric pairs for as long as the puzzle keeps a single solution.
+ * @see SudokuBoard#generateBoard(RandomGenerator)
+ * @see SudokuBoard#generatePuzzle(int, RandomGenerator)
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class BacktrackingGenerator implements PuzzleGenerator {
+    /**
+     * The name of the generator.
+     */
+    public static final String NAME = "BACKTRACKING";
+
+    /**
+     * @return the name of the generator
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @param boxSize the box size of the board (3 for a standard 9x9 board)
+     * @param random the random number generator to generate with
+     * @return a new full, valid board
+     * @throws IllegalArgumentException if boxSize is not between SudokuBoard.MIN_BOX_SIZE and SudokuBoard.MAX_BOX_SIZE
+     */
+    @Override
+    public SudokuBoard generateBoard(int boxSize, RandomGenerator random) throws IllegalArgumentException {
+        SudokuBoard board = new SudokuBoard(boxSize);
+        board.generateBoard(random);
+        return board;
+    }
+
+    /**
+     * @param solution a full, valid board (it is not changed)
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param random the random number generator to generate with
+     * @return a puzzle made from the solution with numbersLeft numbers and a single solution
+     * @throws IllegalArgumentException if the solution cannot be cut down to numbersLeft numbers
+     */
+    @Override
+    public SudokuBoard generatePuzzle(SudokuBoard solution, int numbersLeft, RandomGenerator random)
+            throws IllegalArgumentException {
+        return solution.generatePuzzle(numbersLeft, random);
+    }
+
+    /**
+     * @param solution a full, valid board (it is not changed)
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param random the random number generator to generate with
+     * @param budget the budget of the generation
+     * @return the puzzle if it was FOUND, NOT_FOUND if the solution cannot be cut down to numbersLeft numbers, or why
+     * the budget ran out
+     * @throws IllegalArgumentException if numbersLeft is not less than the amount of cells
+     */
+    @Override
+    public SearchResult<SudokuBoard> generatePuzzle(SudokuBoard solution, int numbersLeft, RandomGenerator random,
+                                                    Budget budget) throws IllegalArgumentException {
+        return solution.generatePuzzle(numbersLeft, random, budget);
+    }
+}
@@ -0,0 +1,172 @@
+package sudoku;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact formats for storing and reading SudokuBoards. There are two formats:
+ * <ul>
+ *     <li>Line: 81 characters, row by row, with '1'-'9' for filled cells and '0' (or '.' when reading) for empty
+ *     cells. This is the common format for sharing puzzles.</li>
+ *     <li>Packed: 4 bits per cell, row by row, with the first cell of each pair in the high half of the byte. A board
+ *     takes 41 bytes.</li>
+ * </ul>
+ * The ByteBuffer methods read and write straight from and to the buffer at its position (moving the position past
+ * the board) without making any intermediate Strings or arrays. Both formats are only for standard 9x9 boards.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class BoardCodec {
+    /**
+     * The amount of characters (or bytes) a board takes in the line format.
+     */
+    public static final int LINE_LENGTH = 81;
+    /**
+     * The amount of bytes a board takes in the packed format.
+     */
+    public static final int PACKED_BYTES = 41;
+
+    /**
+     * This class only has static methods, so it should not be constructed.
+     */
+    private BoardCodec() {}
+
+    /**
+     * @param line a board in the line format
+     * @return the board the line represents
+     * @throws IllegalArgumentException if the line is not 81 characters or has a character that is not a number or '.'
+     */
+    public static SudokuBoard fromLine(CharSequence line) throws IllegalArgumentException {
+        if (line.length() != LINE_LENGTH)
+            throw new IllegalArgumentException("Line must be 81 characters");
+
+        SudokuBoard board = new SudokuBoard();
+        for (int i = 0; i < LINE_LENGTH; i++)
+            board.setCell(i, parseCell(line.charAt(i)));
+
+        return board;
+    }
+
+    /**
+     * @param board the board we want to represent
+     * @return the board in the line format
+     * @throws IllegalArgumentException if the board is not 9x9
+     */
+    public static String toLine(SudokuBoard board) throws IllegalArgumentException {
+        checkStandard(board);
+
+        StringBuilder line = new StringBuilder(LINE_LENGTH);
+        for (int i = 0; i < LINE_LENGTH; i++)
+            line.append((char) ('0' + board.getCell(i)));
+
+        return line.toString();
+    }
+
+    /**
+     * Reads a board in the line format from a buffer, moving the position of the buffer past it.
+     * @param buffer the buffer to read from
+     * @return the board that was read
+     * @throws BufferUnderflowException if there are fewer than 81 bytes left in the buffer
+     * @throws IllegalArgumentException if a byte is not a number or '.'
+     */
+    public static SudokuBoard readLine(ByteBuffer buffer) throws BufferUnderflowException, IllegalArgumentException {
+        if (buffer.remaining() < LINE_LENGTH)
+            throw new BufferUnderflowException();
+
+        int start = buffer.position();
+        SudokuBoard board = new SudokuBoard();
+        for (int i = 0; i < LINE_LENGTH; i++)
+            board.setCell(i, parseCell((char) buffer.get(start + i)));
+
+        buffer.position(start + LINE_LENGTH);
+        return board;
+    }
+
+    /**
+     * Writes a board in the line format to a buffer, moving the position of the buffer past it.
+     * @param board the board to write
+     * @param buffer the buffer to write to
+     * @throws BufferOverflowException if there are fewer than 81 bytes left in the buffer
+     * @throws IllegalArgumentException if the board is not 9x9
+     */
+    public static void writeLine(SudokuBoard board, ByteBuffer buffer)
+            throws BufferOverflowException, IllegalArgumentException {
+        checkStandard(board);
+
+        if (buffer.remaining() < LINE_LENGTH)
+            throw new BufferOverflowException();
+
+        for (int i = 0; i < LINE_LENGTH; i++)
+            buffer.put((byte) ('0' + board.getCell(i)));
+    }
+
+    /**
+     * Reads a board in the packed format from a buffer, moving the position of the buffer past it.
+     * @param buffer the buffer to read from
+     * @return the board that was read
+     * @throws BufferUnderflowException if there are fewer than 41 bytes left in the buffer
+     * @throws IllegalArgumentException if a cell is not 0-9
+     */
+    public static SudokuBoard readPacked(ByteBuffer buffer) throws BufferUnderflowException, IllegalArgumentException {
+        if (buffer.remaining() < PACKED_BYTES)
+            throw new BufferUnderflowException();
+
+        SudokuBoard board = new SudokuBoard();
+        for (int i = 0; i < PACKED_BYTES; i++) {
+            int pair = buffer.get() & 0xFF;
+
+            board.setCell(i * 2, pair >>> 4);
+            // The last byte only holds one cell
+            if (i * 2 + 1 < 81)
+                board.setCell(i * 2 + 1, pair & 0xF);
+        }
+
+        return board;
+    }
+
+    /**
+     * Writes a board in the packed format to a buffer, moving the position of the buffer past it.
+     * @param board the board to write
+     * @param buffer the buffer to write to
+     * @throws BufferOverflowException if there are fewer than 41 bytes left in the buffer
+     * @throws IllegalArgumentException if the board is not 9x9
+     */
+    public static void writePacked(SudokuBoard board, ByteBuffer buffer)
+            throws BufferOverflowException, IllegalArgumentException {
+        checkStandard(board);
+
+        if (buffer.remaining() < PACKED_BYTES)
+            throw new BufferOverflowException();
+
+        for (int i = 0; i < PACKED_BYTES; i++) {
+            int high = board.getCell(i * 2);
+            int low = i * 2 + 1 < 81 ? board.getCell(i * 2 + 1) : 0;
+
+            buffer.put((byte) (high << 4 | low));
+        }
+    }
+
+    /**
+     * @param c a character of a board in the line format
+     * @return the cell number the character represents
+     * @throws IllegalArgumentException if the character is not a number or '.'
+     */
+    private static int parseCell(char c) throws IllegalArgumentException {
+        if (c == '.')
+            return 0;
+        else if ('0' <= c && c <= '9')
+            return c - '0';
+        else
+            throw new IllegalArgumentException("Improper formatting");
+    }
+
+    /**
+     * @param board a board
+     * @throws IllegalArgumentException if the board is not 9x9
+     */
+    private static void checkStandard(SudokuBoard board) throws IllegalArgumentException {
+        if (board.getBoxSize() != 3)
+            throw new IllegalArgumentException("Only 9x9 boards can be encoded");
+    }
+}
@@ -0,0 +1,326 @@
+package sudoku;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A transformation of a sudoku board which keeps valid boards valid (and keeps puzzles with one solution having one
+ * solution). The transformations are made up of
+ * <ul>
+ *     <li>relabeling the numbers (e.g. swapping every 1 with every 7),</li>
+ *     <li>swapping rows within a band (a band is a row of boxes) and columns within a stack (a column of boxes),</li>
+ *     <li>swapping bands and stacks, and</li>
+ *     <li>transposing, rotating, and mirroring the board.</li>
+ * </ul>
+ * A transform is stored as a map from each cell to the cell it takes its number from, along with a map from each
+ * number to its new number. This means any combination of transforms is itself a single transform, and applying it
+ * takes one pass over the board no matter how many transforms went into it. Transforms are immutable.
+ * <p>
+ * Random transforms can be made for boards of any box size. The other transforms are for standard 9x9 boards, and a
+ * transform can only be applied to (or combined with) transforms for boards of the same size.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class BoardTransform {
+    /**
+     * For each cell index of the result, the cell index of the original board it takes its number from.
+     */
+    private final int[] cellMap;
+    /**
+     * For each number 0-9, what the number becomes (0 always stays 0).
+     */
+    private final int[] numberMap;
+
+    /**
+     * @param cellMap for each cell index of the result, the cell index of the original board it takes its number from
+     * @param numberMap for each number 0-9, what the number becomes
+     */
+    private BoardTransform(int[] cellMap, int[] numberMap) {
+        this.cellMap = cellMap;
+        this.numberMap = numberMap;
+    }
+
+    /**
+     * @return the transform which leaves the board as it is
+     */
+    public static BoardTransform identity() {
+        int[] cellMap = new int[81];
+        for (int i = 0; i < 81; i++)
+            cellMap[i] = i;
+
+        int[] numberMap = new int[10];
+        for (int i = 0; i < 10; i++)
+            numberMap[i] = i;
+
+        return new BoardTransform(cellMap, numberMap);
+    }
+
+    /**
+     * Picks a transform for standard 9x9 boards uniformly at random out of every possible transform (there are
+     * 2 * 6^8 * 9! of them).
+     * @param random the random number generator to pick with
+     * @return a random transform
+     */
+    public static BoardTransform random(RandomGenerator random) {
+        return random(3, random);
+    }
+
+    /**
+     * Picks a transform for boards with a certain box size uniformly at random out of every possible transform.
+     * @param boxSize the box size of the boards the transform is for
+     * @param random the random number generator to pick with
+     * @return a random transform
+     * @throws IllegalArgumentException if boxSize is not between SudokuBoard.MIN_BOX_SIZE and SudokuBoard.MAX_BOX_SIZE
+     */
+    public static BoardTransform random(int boxSize, RandomGenerator random) throws IllegalArgumentException {
+        if (boxSize < SudokuBoard.MIN_BOX_SIZE || boxSize > SudokuBoard.MAX_BOX_SIZE)
+            throw new IllegalArgumentException("Box size must be between " + SudokuBoard.MIN_BOX_SIZE + " and "
+                    + SudokuBoard.MAX_BOX_SIZE);
+
+        int size = boxSize * boxSize;
+        int[] bands = randomPermutation(boxSize, random);
+        int[] stacks = randomPermutation(boxSize, random);
+
+        // Pick the order of the rows and columns: a band/stack order, and then an order within each band/stack
+        int[] rows = new int[size];
+        int[] cols = new int[size];
+        for (int i = 0; i < boxSize; i++) {
+            int[] rowsInBand = randomPermutation(boxSize, random);
+            int[] colsInStack = randomPermutation(boxSize, random);
+
+            for (int j = 0; j < boxSize; j++) {
+                rows[i * boxSize + j] = bands[i] * boxSize + rowsInBand[j];
+                cols[i * boxSize + j] = stacks[i] * boxSize + colsInStack[j];
+            }
+        }
+
+        boolean transpose = random.nextBoolean();
+
+        int[] cellMap = new int[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                cellMap[i * size + j] = transpose ? cols[j] * size + rows[i] : rows[i] * size + cols[j];
+            }
+        }
+
+        int[] numbers = randomPermutation(size, random);
+        int[] numberMap = new int[size + 1];
+        for (int i = 0; i < size; i++)
+            numberMap[i + 1] = numbers[i] + 1;
+
+        return new BoardTransform(cellMap, numberMap);
+    }
+
+    /**
+     * @return the transform which reflects the board over its main diagonal, so (row, col) becomes (col, row)
+     */
+    public static BoardTransform transpose() {
+        return fromCells((row, col) -> col * 9 + row);
+    }
+
+    /**
+     * @param quarterTurns how many times to turn the board 90 degrees clockwise (may be negative to turn
+     *                     counterclockwise)
+     * @return the transform which rotates the board clockwise
+     */
+    public static BoardTransform rotate(int quarterTurns) {
+        BoardTransform transform = identity();
+        BoardTransform quarterTurn = fromCells((row, col) -> (8 - col) * 9 + row);
+
+        for (int i = 0; i < Math.floorMod(quarterTurns, 4); i++)
+            transform = transform.then(quarterTurn);
+
+        return transform;
+    }
+
+    /**
+     * @return the transform which mirrors the board along the horizontal line such that the top and the bottom mirror
+     * each other
+     */
+    public static BoardTransform mirror() {
+        return fromCells((row, col) -> (8 - row) * 9 + col);
+    }
+
+    /**
+     * @param first the index of a band (0-2)
+     * @param second the index of another band (0-2)
+     * @return the transform which swaps two bands (rows of boxes)
+     * @throws IndexOutOfBoundsException if either band is not 0-2
+     */
+    public static BoardTransform swapBands(int first, int second) throws IndexOutOfBoundsException {
+        checkIndex(first, 3);
+        checkIndex(second, 3);
+
+        return fromCells((row, col) -> swap(row / 3, first, second) * 27 + row % 3 * 9 + col);
+    }
+
+    /**
+     * @param first the index of a stack (0-2)
+     * @param second the index of another stack (0-2)
+     * @return the transform which swaps two stacks (columns of boxes)
+     * @throws IndexOutOfBoundsException if either stack is not 0-2
+     */
+    public static BoardTransform swapStacks(int first, int second) throws IndexOutOfBoundsException {
+        checkIndex(first, 3);
+        checkIndex(second, 3);
+
+        return fromCells((row, col) -> row * 9 + swap(col / 3, first, second) * 3 + col % 3);
+    }
+
+    /**
+     * @param first the index of a row (0-8)
+     * @param second the index of another row in the same band
+     * @return the transform which swaps two rows
+     * @throws IndexOutOfBoundsException if either row is not 0-8
+     * @throws IllegalArgumentException if the rows are in different bands (this would make valid boards invalid)
+     */
+    public static BoardTransform swapRows(int first, int second)
+            throws IndexOutOfBoundsException, IllegalArgumentException {
+        checkIndex(first, 9);
+        checkIndex(second, 9);
+        if (first / 3 != second / 3)
+            throw new IllegalArgumentException("Rows must be in the same band");
+
+        return fromCells((row, col) -> swap(row, first, second) * 9 + col);
+    }
+
+    /**
+     * @param first the index of a column (0-8)
+     * @param second the index of another column in the same stack
+     * @return the transform which swaps two columns
+     * @throws IndexOutOfBoundsException if either column is not 0-8
+     * @throws IllegalArgumentException if the columns are in different stacks (this would make valid boards invalid)
+     */
+    public static BoardTransform swapCols(int first, int second)
+            throws IndexOutOfBoundsException, IllegalArgumentException {
+        checkIndex(first, 9);
+        checkIndex(second, 9);
+        if (first / 3 != second / 3)
+            throw new IllegalArgumentException("Columns must be in the same stack");
+
+        return fromCells((row, col) -> row * 9 + swap(col, first, second));
+    }
+
+    /**
+     * @param numbers the new number of each number 1-9 (so numbers[0] is what 1 becomes)
+     * @return the transform which relabels the numbers on the board
+     * @throws IllegalArgumentException if numbers is not an ordering of 1-9
+     */
+    public static BoardTransform relabel(int[] numbers) throws IllegalArgumentException {
+        if (numbers.length != 9)
+            throw new IllegalArgumentException("There must be 9 numbers");
+
+        int[] numberMap = new int[10];
+        boolean[] seen = new boolean[10];
+        for (int i = 0; i < 9; i++) {
+            if (numbers[i] < 1 || numbers[i] > 9 || seen[numbers[i]])
+                throw new IllegalArgumentException("Numbers must be an ordering of 1-9");
+
+            seen[numbers[i]] = true;
+            numberMap[i + 1] = numbers[i];
+        }
+
+        BoardTransform identity = identity();
+        return new BoardTransform(identity.cellMap, numberMap);
+    }
+
+    /**
+     * @param next the transform to do after this one
+     * @return the transform which does this transform and then the next one
+     * @throws IllegalArgumentException if the transforms are for boards of different sizes
+     */
+    public BoardTransform then(BoardTransform next) throws IllegalArgumentException {
+        if (next.cellMap.length != cellMap.length)
+            throw new IllegalArgumentException("Transforms are for boards of different sizes");
+
+        int[] combinedCells = new int[cellMap.length];
+        for (int i = 0; i < cellMap.length; i++)
+            combinedCells[i] = cellMap[next.cellMap[i]];
+
+        int[] combinedNumbers = new int[numberMap.length];
+        for (int i = 0; i < numberMap.length; i++)
+            combinedNumbers[i] = next.numberMap[numberMap[i]];
+
+        return new BoardTransform(combinedCells, combinedNumbers);
+    }
+
+    /**
+     * @param board the board to transform (it is not changed)
+     * @return a transformed copy of the board
+     * @throws IllegalArgumentException if the transform is for boards of a different size
+     */
+    public SudokuBoard apply(SudokuBoard board) throws IllegalArgumentException {
+        if (board.getSize() + 1 != numberMap.length)
+            throw new IllegalArgumentException("Transform is for " + (numberMap.length - 1) + "x"
+                    + (numberMap.length - 1) + " boards");
+
+        return board.remapped(cellMap, numberMap);
+    }
+
+    /**
+     * An object which maps a cell of the result to the index of the cell it takes its number from.
+     */
+    private interface CellMapping {
+        int sourceOf(int row, int col);
+    }
+
+    /**
+     * @param mapping where each cell takes its number from
+     * @return the transform which moves the cells but keeps the numbers the same
+     */
+    private static BoardTransform fromCells(CellMapping mapping) {
+        int[] cellMap = new int[81];
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                cellMap[i * 9 + j] = mapping.sourceOf(i, j);
+            }
+        }
+
+        return new BoardTransform(cellMap, identity().numberMap);
+    }
+
+    /**
+     * @param n the amount of numbers
+     * @param random the random number generator to order them with
+     * @return the numbers 0 - (n - 1) in a random order
+     */
+    private static int[] randomPermutation(int n, RandomGenerator random) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++)
+            permutation[i] = i;
+
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+
+            int temp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = temp;
+        }
+
+        return permutation;
+    }
+
+    /**
+     * @param value the value to swap
+     * @param first one of the values being swapped
+     * @param second the other value being swapped
+     * @return second if value is first, first if value is second, and value otherwise
+     */
+    private static int swap(int value, int first, int second) {
+        if (value == first)
+            return second;
+        else if (value == second)
+            return first;
+        else
+            return value;
+    }
+
+    /**
+     * @param index the index to check
+     * @param size the amount of valid indices
+     * @throws IndexOutOfBoundsException if index is not 0 - (size - 1)
+     */
+    private static void checkIndex(int index, int size) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index must be between 0 and " + (size - 1));
+    }
+}
@@ -0,0 +1,108 @@
+package sudoku;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how long a search or generation may run, so a service can bound how long each request takes. A budget can
+ * have a time limit (counted from when the budget is made), a limit on the amount of nodes searched, and a
+ * {@link CancellationToken}; once any of them runs out, whatever is running with the budget stops and returns a
+ * {@link SearchResult} saying why instead of carrying on.
+ * <p>
+ * Nodes are charged to the budget by the solvers in chunks of {@value #CHECK_INTERVAL} and at the end of each search,
+ * so the budget is only looked at every so often and a search can go slightly past it. One budget can be shared by
+ * every search of a generation (and by searches on many threads), and the nodes of all of them count against it.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public final class Budget {
+    /**
+     * A budget which never runs out.
+     */
+    public static final Budget UNLIMITED = new Budget(Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+    /**
+     * How many nodes a solver searches between looking at its budget (a power of 2, so a mask can be used).
+     */
+    public static final int CHECK_INTERVAL = 1024;
+
+    /**
+     * When the budget runs out of time (from System.nanoTime(), only meaningful if timed is true).
+     */
+    private final long deadline;
+    /**
+     * If the budget has a time limit.
+     */
+    private final boolean timed;
+    /**
+     * How many nodes are left (only counted down if the budget has a node limit).
+     */
+    private final AtomicLong nodesLeft;
+    /**
+     * The token which cancels everything running with the budget (null if it cannot be cancelled).
+     */
+    private final CancellationToken token;
+    /**
+     * The budget this one is part of (null if it is not part of one).
+     */
+    private final Budget parent;
+
+    /**
+     * Constructs a budget. The time limit starts now.
+     * @param timeoutMillis how long may be spent (Long.MAX_VALUE for no time limit)
+     * @param maxNodes how many nodes may be searched (Long.MAX_VALUE for no node limit)
+     * @param token the token which cancels everything running with the budget (null if it cannot be cancelled)
+     * @throws IllegalArgumentException if timeoutMillis or maxNodes is negative
+     */
+    public Budget(long timeoutMillis, long maxNodes, CancellationToken token) throws IllegalArgumentException {
+        if (timeoutMillis < 0 || maxNodes < 0)
+            throw new IllegalArgumentException("Timeout and max nodes must be non-negative");
+
+        // Timeouts too long to count in nanoseconds may as well be no timeout
+        timed = timeoutMillis < Long.MAX_VALUE / 1_000_000;
+        deadline = timed ? System.nanoTime() + timeoutMillis * 1_000_000 : 0;
+        nodesLeft = maxNodes == Long.MAX_VALUE ? null : new AtomicLong(maxNodes);
+        this.token = token;
+        parent = null;
+    }
+
+    /**
+     * Constructs a budget which is part of another one. Its nodes count against the other budget, and it runs out
+     * when the other budget does or when its own token is cancelled. This lets one piece of a larger search be stopped
+     * on its own (e.g. by {@link ParallelSolver}) while the whole search keeps to its budget.
+     * @param parent the budget this one is part of
+     * @param token the token which cancels only this budget
+     */
+    public Budget(Budget parent, CancellationToken token) {
+        timed = false;
+        deadline = 0;
+        nodesLeft = null;
+        this.token = token;
+        this.parent = parent;
+    }
+
+    /**
+     * Counts nodes searched against the budget.
+     * @param nodes how many nodes were searched
+     */
+    public void charge(long nodes) {
+        if (nodesLeft != null && nodes > 0)
+            nodesLeft.addAndGet(-nodes);
+        if (parent != null)
+            parent.charge(nodes);
+    }
+
+    /**
+     * @return null if the budget has not run out, or why it has (CANCELLED if its token was cancelled, otherwise
+     * BUDGET_EXCEEDED)
+     */
+    public SearchResult.Status check() {
+        if (token != null && token.isCancelled())
+            return SearchResult.Status.CANCELLED;
+        else if (nodesLeft != null && nodesLeft.get() < 0)
+            return SearchResult.Status.BUDGET_EXCEEDED;
+        else if (timed && System.nanoTime() - deadline > 0)
+            return SearchResult.Status.BUDGET_EXCEEDED;
+
+        return parent == null ? null : parent.check();
+    }
+}
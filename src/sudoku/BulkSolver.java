@@ -0,0 +1,328 @@
+package sudoku;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Solves a whole file of puzzles using every core. The input has one puzzle per line written as 81 characters, row by
+ * row, with '0' or '.' for empty cells (blank lines are skipped). The output has the solution of each puzzle in the
+ * same order, also as 81 characters per line. Puzzles that are malformed or have no solution get a line of 81 '0's
+ * instead.
+ * <p>
+ * Puzzles are read straight from a FileChannel in fixed size batches. While one batch is being solved the next one is
+ * read, so only two batches are ever held in memory no matter how large the file is.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class BulkSolver implements AutoCloseable {
+    /**
+     * How many puzzles are solved together in one batch.
+     */
+    private static final int BATCH_SIZE = 4096;
+    /**
+     * How many bytes are read from the input file at a time.
+     */
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    /**
+     * What is written for puzzles without a solution (an empty board, so a line of 0s).
+     */
+    private static final SudokuBoard NO_SOLUTION = new SudokuBoard();
+
+    /**
+     * The engine each puzzle is solved with.
+     */
+    private final Solver engine;
+    /**
+     * The pool the puzzles are solved on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * How many puzzles could not be solved in the last call to {@link #solve(Path, Path)}.
+     */
+    private long unsolvedCount;
+    /**
+     * If the rest of a line too long to be a puzzle is being thrown away (kept between reads and batches, since the
+     * line can span many of both).
+     */
+    private boolean skippingLine;
+
+    /**
+     * Constructs a bulk solver which uses every available core.
+     * @param engine the engine to solve each puzzle with
+     */
+    public BulkSolver(Solver engine) {
+        this(engine, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a bulk solver which uses a certain amount of threads.
+     * @param engine the engine to solve each puzzle with
+     * @param parallelism the amount of puzzles to solve at the same time
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public BulkSolver(Solver engine, int parallelism) throws IllegalArgumentException {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be positive");
+
+        this.engine = engine;
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Solves every puzzle in the input file, writing the solutions in the same order to the output file.
+     * @param input the file of puzzles to solve
+     * @param output the file to write the solutions to (it is replaced if it exists)
+     * @return the amount of puzzles read
+     * @throws IOException if either file cannot be read or written
+     */
+    public long solve(Path input, Path output) throws IOException {
+        unsolvedCount = 0;
+        skippingLine = false;
+        long total = 0;
+
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+            readBuffer.flip(); // Start with nothing to read
+
+            Batch reading = new Batch();
+            Batch solving = new Batch();
+            ForkJoinTask<?> solveTask = null;
+
+            while (true) {
+                reading.fill(in, readBuffer);
+                total += reading.size;
+
+                // Wait for the batch before this one and write it out while the new one gets solved
+                if (solveTask != null) {
+                    join(solveTask);
+                    solving.write(out);
+                }
+
+                if (reading.size == 0)
+                    break;
+
+                Batch toSolve = reading;
+                solveTask = pool.submit(() -> IntStream.range(0, toSolve.size).parallel().forEach(toSolve::solve));
+
+                reading = solving;
+                solving = toSolve;
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * @return how many puzzles could not be solved (or were malformed) in the last call to {@link #solve(Path, Path)}
+     */
+    public long getUnsolvedCount() {
+        return unsolvedCount;
+    }
+
+    /**
+     * Waits for a task to finish.
+     * @param task the task to wait for
+     * @throws IOException if the task was interrupted or failed
+     */
+    private static void join(ForkJoinTask<?> task) throws IOException {
+        try {
+            task.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while solving", ie);
+        } catch (ExecutionException ee) {
+            throw new IOException("Solving failed", ee.getCause());
+        }
+    }
+
+    /**
+     * Shuts down the threads of the solver.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * A batch of puzzles, along with room for their solutions. Batches are reused for the whole file.
+     */
+    private class Batch {
+        /**
+         * The puzzles in the batch (null for malformed lines).
+         */
+        private final SudokuBoard[] puzzles = new SudokuBoard[BATCH_SIZE];
+        /**
+         * The solution lines of each puzzle, 82 bytes each (81 cells and a newline).
+         */
+        private final byte[] solutions = new byte[BATCH_SIZE * 82];
+        /**
+         * How many puzzles are in the batch.
+         */
+        private int size;
+
+        /**
+         * Reads up to BATCH_SIZE puzzles from the channel into the batch.
+         * @param in the channel to read from
+         * @param buffer the read buffer (ready to be read from, and kept between calls)
+         * @throws IOException if the channel cannot be read
+         */
+        private void fill(FileChannel in, ByteBuffer buffer) throws IOException {
+            size = 0;
+
+            while (size < BATCH_SIZE) {
+                // Find the end of the next line, reading more of the file if the line isn't all there yet
+                int lineEnd = indexOf(buffer, (byte) '\n');
+
+                // If we are in the middle of a line too long to be a puzzle, throw it away up to its end
+                if (skippingLine) {
+                    if (lineEnd != -1) {
+                        buffer.position(lineEnd + 1);
+                        skippingLine = false;
+                        continue;
+                    }
+
+                    buffer.clear();
+                    int read = in.read(buffer);
+                    buffer.flip();
+
+                    if (read == -1)
+                        return;
+                    continue;
+                }
+
+                if (lineEnd == -1 && buffer.remaining() == buffer.capacity()) {
+                    // The line is longer than the whole buffer, so it cannot be a puzzle. It gets one malformed row,
+                    // and the rest of it is skipped so it doesn't turn into more rows
+                    puzzles[size++] = null;
+                    buffer.position(buffer.limit());
+                    skippingLine = true;
+                    continue;
+                } else if (lineEnd == -1) {
+                    buffer.compact();
+                    int read = in.read(buffer);
+                    buffer.flip();
+
+                    if (read != -1)
+                        continue;
+                    else if (!buffer.hasRemaining())
+                        return;
+
+                    // The last line has no newline
+                    lineEnd = buffer.limit();
+                }
+
+                int length = lineEnd - buffer.position();
+                // Let Windows line endings through
+                if (length > 0 && buffer.get(lineEnd - 1) == '\r')
+                    length--;
+
+                if (length > 0)
+                    parse(buffer, length);
+
+                buffer.position(Math.min(lineEnd + 1, buffer.limit()));
+            }
+        }
+
+        /**
+         * Parses the line starting at the buffer's position as the next puzzle in the batch.
+         * @param buffer the buffer holding the line
+         * @param length the length of the line (without its line ending)
+         */
+        private void parse(ByteBuffer buffer, int length) {
+            puzzles[size] = null;
+
+            if (length == BoardCodec.LINE_LENGTH) {
+                try {
+                    puzzles[size] = BoardCodec.readLine(buffer);
+                } catch (IllegalArgumentException ignored) {} // It stays null as it is malformed
+            }
+
+            size++;
+        }
+
+        /**
+         * Solves one puzzle of the batch, putting its solution line into the solutions.
+         * @param index the index of the puzzle in the batch
+         */
+        private void solve(int index) {
+            SudokuBoard solution = puzzles[index] == null ? null : engine.solve(puzzles[index]);
+            puzzles[index] = null; // Let the puzzle be collected now that it is solved
+
+            ByteBuffer line = ByteBuffer.wrap(solutions, index * 82, 82);
+            BoardCodec.writeLine(solution == null ? NO_SOLUTION : solution, line);
+            line.put((byte) '\n');
+        }
+
+        /**
+         * Writes the solution lines of the batch to the channel.
+         * @param out the channel to write to
+         * @throws IOException if the channel cannot be written
+         */
+        private void write(FileChannel out) throws IOException {
+            for (int i = 0; i < size; i++) {
+                if (solutions[i * 82] == '0')
+                    unsolvedCount++;
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(solutions, 0, size * 82);
+            while (buffer.hasRemaining())
+                out.write(buffer);
+        }
+    }
+
+    /**
+     * @param buffer the buffer to search
+     * @param b the byte to search for
+     * @return the absolute index of the first b between the position and the limit of the buffer, or -1 if there is none
+     */
+    private static int indexOf(ByteBuffer buffer, byte b) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            if (buffer.get(i) == b)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Solves a file of puzzles from the command line.
+     * @param args the input file, the output file, and optionally the name of the engine to use (defaults to the
+     *             {@value Engines#SOLVER_PROPERTY} property, or PROPAGATION if it is not set)
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: BulkSolver <input> <output> [engine]");
+            return;
+        }
+
+        Solver engine;
+        try {
+            engine = Engines.solver(args.length > 2 ? args[2]
+                    : System.getProperty(Engines.SOLVER_PROPERTY, SolverEngine.PROPAGATION.getName()));
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Error: " + iae.getMessage());
+            return;
+        }
+
+        try (BulkSolver solver = new BulkSolver(engine)) {
+            long start = System.currentTimeMillis();
+            long count = solver.solve(Paths.get(args[0]), Paths.get(args[1]));
+            long end = System.currentTimeMillis();
+
+            System.out.printf("Solved %d puzzles (%d unsolvable) in %s\n", count - solver.getUnsolvedCount(),
+                    solver.getUnsolvedCount(), CommandLineUI.millisToClock(end - start));
+        } catch (IOException ioe) {
+            System.out.println("Error: " + ioe.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package sudoku;
+
+/**
+ * Lets one thread stop a search or generation another thread is running. The token is given to a {@link Budget}, and
+ * once it is cancelled anything running with that budget stops soon after with
+ * {@link SearchResult.Status#CANCELLED}. A token is safe to share between threads, and one token can cancel many
+ * searches at once.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class CancellationToken {
+    /**
+     * If the token has been cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Cancels everything running with the token (cancelling more than once does nothing).
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return if the token has been cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,294 @@
+package sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Finds the canonical form of a sudoku board: the board which comes first (reading the cells row by row, with empty
+ * cells as 0) out of every board it can be turned into with a {@link BoardTransform}. Two boards are the same puzzle
+ * up to symmetry exactly when they have the same canonical form. Only standard 9x9 boards can be canonicalized.
+ * <p>
+ * The search tries each transpose and each row of the source as the first row of the result. It then picks the
+ * column order (2 * 6^4 are possible) one column at a time, and then the rest of the rows from top to bottom,
+ * relabeling the numbers in the order they first appear. A branch is abandoned as soon as a cell or row comes after
+ * the same cell or row of the best board found so far, which cuts almost every branch off early.
+ * <p>
+ * The search works in arrays allocated up front, so a canonicalizer can be reused for any number of boards, but it
+ * should not be shared between threads.
+ * @see PuzzleIndex
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class Canonicalizer {
+    /**
+     * Each thread keeps its own canonicalizer around so its arrays are only allocated once.
+     */
+    private static final ThreadLocal<Canonicalizer> THREAD_CANONICALIZER =
+            ThreadLocal.withInitial(Canonicalizer::new);
+
+    /**
+     * The cells of the board being canonicalized (transposed when searching the transposed half).
+     */
+    private final int[] source;
+    /**
+     * The order the columns of the source are read in.
+     */
+    private final int[] colOrder;
+    /**
+     * The smallest board found so far. Everything above the current row matches the rows picked so far.
+     */
+    private final int[] best;
+
+    /**
+     * For each number, what it has been relabeled to (0 if it has not appeared yet).
+     */
+    private final int[] labels;
+    /**
+     * The numbers in the order they were relabeled, so relabeling can be undone.
+     */
+    private final int[] labeled;
+    /**
+     * How many numbers have been relabeled.
+     */
+    private int labelCount;
+
+    /**
+     * If each row of the source has been used yet.
+     */
+    private final boolean[] rowUsed;
+    /**
+     * If each band of the source has been used yet.
+     */
+    private final boolean[] bandUsed;
+    /**
+     * For each band of the result, the band of the source its rows come from.
+     */
+    private final int[] bandAt;
+    /**
+     * If each column of the source has been used yet.
+     */
+    private final boolean[] colUsed;
+    /**
+     * If each stack of the source has been used yet.
+     */
+    private final boolean[] stackUsed;
+    /**
+     * For each stack of the result, the stack of the source its columns come from.
+     */
+    private final int[] stackAt;
+    /**
+     * The scratch row being compared.
+     */
+    private final int[][] rowScratch;
+
+    /**
+     * Constructs a canonicalizer.
+     */
+    public Canonicalizer() {
+        source = new int[81];
+        colOrder = new int[9];
+        best = new int[81];
+
+        labels = new int[10];
+        labeled = new int[10];
+
+        rowUsed = new boolean[9];
+        bandUsed = new boolean[3];
+        bandAt = new int[3];
+        colUsed = new boolean[9];
+        stackUsed = new boolean[3];
+        stackAt = new int[3];
+        rowScratch = new int[9][9];
+    }
+
+    /**
+     * @return the canonicalizer belonging to the current thread
+     */
+    public static Canonicalizer forCurrentThread() {
+        return THREAD_CANONICALIZER.get();
+    }
+
+    /**
+     * @param board the board we want the canonical form of (it is not changed)
+     * @return the canonical form of the board
+     * @throws IllegalArgumentException if the board is not 9x9
+     */
+    public SudokuBoard canonicalize(SudokuBoard board) throws IllegalArgumentException {
+        int[] cells = canonicalCells(board);
+
+        SudokuBoard canonical = new SudokuBoard();
+        for (int i = 0; i < 81; i++)
+            canonical.setCell(i, cells[i]);
+
+        return canonical;
+    }
+
+    /**
+     * Finds the canonical form of a board without making a new SudokuBoard.
+     * @param board the board we want the canonical form of (it is not changed)
+     * @return the cells of the canonical form, row by row. The array belongs to the canonicalizer and is overwritten by
+     * the next call
+     * @throws IllegalArgumentException if the board is not 9x9
+     */
+    public int[] canonicalCells(SudokuBoard board) throws IllegalArgumentException {
+        if (board.getBoxSize() != 3)
+            throw new IllegalArgumentException("Only 9x9 boards can be canonicalized");
+
+        Arrays.fill(best, Integer.MAX_VALUE);
+
+        for (int transpose = 0; transpose < 2; transpose++) {
+            for (int i = 0; i < 9; i++) {
+                for (int j = 0; j < 9; j++) {
+                    source[i * 9 + j] = transpose == 0 ? board.getCell(i, j) : board.getCell(j, i);
+                }
+            }
+
+            // Try every row of the source as the first row, picking the columns to make that row as small as possible
+            for (int row = 0; row < 9; row++) {
+                rowUsed[row] = true;
+                bandUsed[row / 3] = true;
+                bandAt[0] = row / 3;
+
+                searchCols(row, 0);
+
+                rowUsed[row] = false;
+                bandUsed[row / 3] = false;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Picks the column of the source to go at each column of the result, keeping only column orders which could still
+     * make the first row beat the best board.
+     * @param firstRow the row of the source used as the first row of the result
+     * @param position the column of the result being picked
+     */
+    private void searchCols(int firstRow, int position) {
+        if (position == 9) {
+            searchRows(1);
+            return;
+        }
+
+        for (int col = 0; col < 9; col++) {
+            // A new stack can be any unused stack, but the rest of a stack must come from the same stack of the source
+            boolean allowed = position % 3 == 0 ? !stackUsed[col / 3]
+                    : !colUsed[col] && col / 3 == stackAt[position / 3];
+            if (!allowed)
+                continue;
+
+            int labelMark = labelCount;
+            int number = label(source[firstRow * 9 + col]);
+
+            if (number <= best[position]) {
+                // If this cell beats the best board, the rest of the best board no longer applies
+                if (number < best[position]) {
+                    best[position] = number;
+                    Arrays.fill(best, position + 1, 81, Integer.MAX_VALUE);
+                }
+
+                colOrder[position] = col;
+                colUsed[col] = true;
+                if (position % 3 == 0) {
+                    stackUsed[col / 3] = true;
+                    stackAt[position / 3] = col / 3;
+                }
+
+                searchCols(firstRow, position + 1);
+
+                colUsed[col] = false;
+                if (position % 3 == 0)
+                    stackUsed[col / 3] = false;
+            }
+
+            // Undo the relabeling if this cell relabeled a number
+            while (labelCount > labelMark)
+                labels[labeled[--labelCount]] = 0;
+        }
+    }
+
+    /**
+     * Picks the row of the source to go at each row of the result, keeping only row orders which could still beat
+     * the best board.
+     * @param depth the row of the result being picked
+     */
+    private void searchRows(int depth) {
+        if (depth == 9)
+            return;
+
+        for (int row = 0; row < 9; row++) {
+            // A new band can be any unused band, but the rest of a band must come from the same band of the source
+            boolean allowed = depth % 3 == 0 ? !bandUsed[row / 3] : !rowUsed[row] && row / 3 == bandAt[depth / 3];
+            if (!allowed)
+                continue;
+
+            int labelMark = labelCount;
+            int comparison = compareRow(row, depth);
+
+            if (comparison <= 0) {
+                // If this row beats the best board, the rest of the best board no longer applies
+                if (comparison < 0) {
+                    System.arraycopy(rowScratch[depth], 0, best, depth * 9, 9);
+                    Arrays.fill(best, depth * 9 + 9, 81, Integer.MAX_VALUE);
+                }
+
+                rowUsed[row] = true;
+                if (depth % 3 == 0) {
+                    bandUsed[row / 3] = true;
+                    bandAt[depth / 3] = row / 3;
+                }
+
+                searchRows(depth + 1);
+
+                rowUsed[row] = false;
+                if (depth % 3 == 0)
+                    bandUsed[row / 3] = false;
+            }
+
+            // Undo any numbers this row relabeled
+            while (labelCount > labelMark)
+                labels[labeled[--labelCount]] = 0;
+        }
+    }
+
+    /**
+     * @param number a number of the source (0 for empty)
+     * @return what the number is relabeled to, relabeling it with the next label if it has not appeared yet
+     */
+    private int label(int number) {
+        // Numbers are relabeled in the order they first appear
+        if (number != 0 && labels[number] == 0) {
+            labeled[labelCount++] = number;
+            labels[number] = labelCount;
+        }
+
+        return labels[number];
+    }
+
+    /**
+     * Relabels a row of the source (in the current column order) into the scratch row for a depth, and compares it to
+     * the same row of the best board.
+     * @param row the row of the source
+     * @param depth the row of the result it would go at
+     * @return negative if it comes before the best board's row, 0 if they are the same, and positive if it comes after
+     */
+    private int compareRow(int row, int depth) {
+        int[] scratch = rowScratch[depth];
+        int comparison = 0;
+
+        for (int k = 0; k < 9; k++) {
+            int number = source[row * 9 + colOrder[k]];
+
+            scratch[k] = label(number);
+
+            if (comparison == 0) {
+                comparison = Integer.compare(scratch[k], best[depth * 9 + k]);
+                // Once it comes after the best row, the rest of the row doesn't matter
+                if (comparison > 0)
+                    return comparison;
+            }
+        }
+
+        return comparison;
+    }
+}
@@ -1,3 +1,7 @@
+package sudoku;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 /**
@@ -7,6 +11,11 @@ import java.util.Scanner;
  * @author Hudson Hadley
  */
 public class CommandLineUI {
+    /**
+     * Where the puzzle pool is kept between runs, so games start right away even on the first run of a session.
+     */
+    private static final Path POOL_FILE = Path.of(System.getProperty("user.home"), ".sudoku-pool");
+
     /**
      * Converts milliseconds into a printable String with clock time hh:mm:ss (note that hh can be more than 24)
      * @param milliseconds the amount of milliseconds we want to convert
@@ -84,65 +93,75 @@ public class CommandLineUI {
         return num;
     }
 
+    /**
+     * Opens the puzzle pool and makes sure it is saved when the program exits (even when the game ends early).
+     * @return the pool, or null if the pool file could not be read
+     */
+    private static PuzzlePool openPool() {
+        try {
+            PuzzlePool pool = new PuzzlePool(2, 5, 1, POOL_FILE);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    pool.close();
+                } catch (IOException ignored) {} // The puzzles will just be generated again next time
+            }));
+            return pool;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public static void main(String[] args) {
-        boolean game = true; //game loop variable
-        int incorrect = 0; //how many incorrect guesses the user has made
         Scanner scan = new Scanner(System.in);
 
-        int[] levels = new int[]{35, 30, 26, 22}; // The numbers left corresponding to each difficulty
+        // Puzzles are generated ahead of time (and kept between runs), so open the pool first to let it fill while
+        // the user picks a difficulty
+        PuzzlePool pool = openPool();
+
         int difficulty = getNumber(scan,
-                "Enter difficulty level (1 = easy, 2 = medium, 3 = hard, 4 = impossible): ", 1, 4);
+                "Enter difficulty level (1 = easy, 2 = medium, 3 = hard, 4 = impossible, 5 = expert): ", 1,
+                Difficulty.values().length);
 
+        Difficulty level = Difficulty.values()[difficulty - 1];
 
-        // No matter the difficulty, there is a possibility the board generator will create a puzzle which cannot
-        // have whatever amount of numbers left. So we need to put this in a while true block and keep trying
-        // until we successfully make a board
-        System.out.println("\nGenerating puzzle...");
-        SudokuPuzzle board;
-        while (true) {
-            try {
-                board = new SudokuPuzzle(levels[difficulty - 1]);
-                break;
-            } catch (IllegalArgumentException ignored) {}
-        }
+        // If there is no puzzle ready, the user has to wait for one to be generated
+        if (pool == null || pool.size(level) == 0)
+            System.out.println("\nGenerating puzzle...");
+
+        // Starting a game takes a puzzle out of the pool instead of waiting for one to be generated and graded
+        SudokuPuzzle board = pool == null ? new SudokuPuzzle(level) : pool.take(level);
 
         // For debugging
         //System.out.println(board.solveToString());
 
+        // The game ends after 3 incorrect guesses
+        GameSession game = new GameSession(board, 3);
 
-        long start = System.currentTimeMillis();
-
-        while (game) { //the game loop that prints the board, takes in a player guess, and turns it into a cell coordinate if valid
+        while (!game.isOver()) { //the game loop that prints the board, takes in a player guess, and turns it into a cell coordinate if valid
             System.out.println(board); //prints the board
 
             int rowGuess = getNumber(scan, "Row Guess: ", 1, 9);
             int colGuess = getNumber(scan, "Column Guess: ", 1, 9);
             int numGuess = getNumber(scan, "Number Guess: ", 1, 9);
 
-            if (!board.validGuess(rowGuess - 1, colGuess - 1)) { //checks if the cell guessed is empty
-                System.out.println("\nCell is already filled!\n");
-            } else if (!board.guess(rowGuess - 1, colGuess - 1, numGuess)) { //if the guess is incorrect
-                System.out.println("\nIncorrect guess\n");
-                incorrect++;
-
-                if (incorrect == 3) { //end the game if the player has 3 incorrect guesses
-                    System.out.println("3 incorrect guesses. Game over!");
-                    System.exit(0); // Quit the game
-                }
-
-            } else {
-                System.out.println("\nCorrect guess\n");
-            }
-
-            if (board.isSolved()) { //ends game if the board is full
-                game = false;
+            switch (game.guess(rowGuess - 1, colGuess - 1, numGuess)) {
+                case FILLED: //the cell guessed was not empty
+                    System.out.println("\nCell is already filled!\n");
+                    break;
+                case INCORRECT:
+                    System.out.println("\nIncorrect guess\n");
+                    break;
+                case LOST: //end the game if the player has run out of incorrect guesses
+                    System.out.println("\nIncorrect guess\n");
+                    System.out.println(game.getMaxIncorrect() + " incorrect guesses. Game over!");
+                    return;
+                default: //correct (the loop ends if the board is solved)
+                    System.out.println("\nCorrect guess\n");
             }
         }
 
-        long end = System.currentTimeMillis();
-
         System.out.println(board);
-        System.out.printf("Time: %s\n", millisToClock(end - start));
-        System.out.println("Incorrect guesses: " + incorrect);
+        System.out.printf("Time: %s\n", game.getClock());
+        System.out.println("Incorrect guesses: " + game.getIncorrect());
     }
 }
@@ -0,0 +1,121 @@
+package sudoku;
+
+/**
+ * A basic coordinate class for easing the access of elements of a 2D List. Coordinates cannot be changed once made,
+ * so they can be used as keys in sets and maps, and the coordinates of every cell of the largest board are made once
+ * and shared (use {@link #of(int, int)} instead of the constructor to get them).
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public final class Coordinate {
+    /**
+     * The width and height of the table of shared coordinates (big enough for every cell of the largest board).
+     */
+    private static final int TABLE_SIZE = SudokuBoard.MAX_BOX_SIZE * SudokuBoard.MAX_BOX_SIZE;
+    /**
+     * The shared coordinates, indexed by row * TABLE_SIZE + col.
+     */
+    private static final Coordinate[] TABLE = new Coordinate[TABLE_SIZE * TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < TABLE.length; i++)
+            TABLE[i] = new Coordinate(i / TABLE_SIZE, i % TABLE_SIZE);
+    }
+
+    /**
+     * The row of the coordinate in the 2D List.
+     */
+    private final int row;
+    /**
+     * The column of the coordinate in the 2D List.
+     */
+    private final int col;
+
+    /**
+     * Constructor to initialize a coordinate at (row, col).
+     * @param row the row of the coordinate we want to initialize
+     * @param col the column of the coordinate we want to initialize
+     */
+    public Coordinate(int row, int col) {
+        this.row = row;
+        this.col = col;
+    }
+
+    /**
+     * Gets the coordinate at (row, col) without making a new one if it is on a board.
+     * @param row the row of the coordinate we want
+     * @param col the column of the coordinate we want
+     * @return the shared coordinate at (row, col), or a new one if it is outside the largest board
+     */
+    public static Coordinate of(int row, int col) {
+        // If it is outside the table, it is not a cell of any board, so it is not worth sharing
+        if (row < 0 || row >= TABLE_SIZE || col < 0 || col >= TABLE_SIZE)
+            return new Coordinate(row, col);
+
+        return TABLE[row * TABLE_SIZE + col];
+    }
+
+    /**
+     * Gets the coordinate of a cell from its index in a board (row * size + col).
+     * @param index the index of the cell
+     * @param size the width and height of the board
+     * @return the shared coordinate of the cell
+     */
+    public static Coordinate ofIndex(int index, int size) {
+        return of(index / size, index % size);
+    }
+
+    /**
+     * @return the row of the coordinate
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return the column of the coordinate
+     */
+    public int getCol() {
+        return col;
+    }
+
+    /**
+     * @param size the width and height of a board
+     * @return the index of the coordinate's cell in the board (row * size + col)
+     */
+    public int toIndex(int size) {
+        return row * size + col;
+    }
+
+    /**
+     * @param other another object we want to see if it is equal
+     * @return if the row and col are the same
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (other == null)
+            return false;
+        else if (!(other instanceof Coordinate))
+            return false;
+
+        Coordinate otherCoordinate = (Coordinate) other;
+
+        return this.row == otherCoordinate.row && this.col == otherCoordinate.col;
+    }
+
+    /**
+     * @return a hash code which agrees with equals (the cells of the largest board all have different hash codes)
+     */
+    @Override
+    public int hashCode() {
+        return row * 31 + col;
+    }
+
+    /**
+     * @return a String representation of the coordinate as (row, col)
+     */
+    @Override
+    public String toString() {
+        return "(" + row + ", " + col + ")";
+    }
+}
@@ -0,0 +1,511 @@
+package sudoku;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Solves sudoku boards using Knuth's Algorithm X on a Dancing Links (DLX) matrix. Sudoku is turned into an exact cover
+ * problem with 324 constraints (each cell filled once, and each number once per row, column, and box) and 729 choices
+ * (each number in each cell). Each choice satisfies exactly four constraints, and a solution is a set of choices that
+ * satisfies every constraint exactly once.
+ * <p>
+ * Each solver works on boards of one box size. Larger boards just make a larger matrix (4 * 625 constraints and
+ * 15625 choices at 25x25), and since Algorithm X always branches on the most constrained part of the board it stays
+ * fast at sizes where backtracking cell by cell never finishes.
+ * <p>
+ * The matrix is stored in parallel int arrays rather than node objects and is built once per solver, since covering
+ * and uncovering leave it exactly as it was found. This means a solver can be reused for any number of boards, but it
+ * should not be shared between threads.
+ * @see SolverEngine
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class DancingLinksSolver {
+    /**
+     * Building the matrix costs more than most solves, so each thread keeps its own solver around for each box size
+     * (indexed by box size, and only built once it is needed).
+     */
+    private static final ThreadLocal<DancingLinksSolver[]> THREAD_SOLVERS =
+            ThreadLocal.withInitial(() -> new DancingLinksSolver[SudokuBoard.MAX_BOX_SIZE + 1]);
+
+    /**
+     * The width and height of each box of the boards this solver works on.
+     */
+    private final int boxSize;
+    /**
+     * The width and height of the boards this solver works on.
+     */
+    private final int boardSize;
+    /**
+     * The amount of cells on the boards this solver works on.
+     */
+    private final int cellCount;
+    /**
+     * The amount of constraints (columns) in the matrix: 81 cells + 81 row/numbers + 81 col/numbers + 81 box/numbers
+     * on a standard board.
+     */
+    private final int constraints;
+
+    /**
+     * The links of each node. Node 0 is the root, nodes 1 - constraints are the column headers, and after that each
+     * choice gets four consecutive nodes.
+     */
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    /**
+     * The column header each node belongs to.
+     */
+    private final int[] column;
+    /**
+     * For each column header, how many nodes are currently in the column.
+     */
+    private final int[] size;
+
+    /**
+     * The choices picked so far on the way down the search.
+     */
+    private final int[] picked;
+    /**
+     * The choices of the first solution found.
+     */
+    private final int[] firstSolution;
+    /**
+     * How many choices were given by the board (these are at the bottom of the picked stack).
+     */
+    private int givenCount;
+    /**
+     * How many solutions have been found in the current search.
+     */
+    private int solutionCount;
+
+    /**
+     * Where to take randomness from when picking the order to try choices in (null to try them in order).
+     */
+    private RandomGenerator random;
+    /**
+     * How many more choices the current search may try before giving up (only counted down when random is set).
+     */
+    private long nodesLeft;
+    /**
+     * The budget of the current search.
+     */
+    private Budget budget;
+    /**
+     * Why the current search stopped early (null if the budget has not run out).
+     */
+    private SearchResult.Status stopped;
+
+    /**
+     * How many choices the current search has tried (for the metrics).
+     */
+    private long nodes;
+    /**
+     * How many dead ends the current search has hit (for the metrics).
+     */
+    private long backtracks;
+    /**
+     * The most choices past the givens the current search has had picked at once (for the metrics).
+     */
+    private int maxDepth;
+
+    /**
+     * Constructs a solver for standard 9x9 boards, building the full exact cover matrix for an empty board.
+     */
+    public DancingLinksSolver() {
+        this(3);
+    }
+
+    /**
+     * Constructs a solver for boards with a certain box size, building the full exact cover matrix for an empty board.
+     * @param boxSize the width and height of each box of the boards to solve
+     * @throws IllegalArgumentException if boxSize is not between SudokuBoard.MIN_BOX_SIZE and SudokuBoard.MAX_BOX_SIZE
+     */
+    public DancingLinksSolver(int boxSize) throws IllegalArgumentException {
+        if (boxSize < SudokuBoard.MIN_BOX_SIZE || boxSize > SudokuBoard.MAX_BOX_SIZE)
+            throw new IllegalArgumentException("Box size must be between " + SudokuBoard.MIN_BOX_SIZE + " and "
+                    + SudokuBoard.MAX_BOX_SIZE);
+
+        this.boxSize = boxSize;
+        boardSize = boxSize * boxSize;
+        cellCount = boardSize * boardSize;
+        constraints = cellCount * 4;
+
+        int choices = cellCount * boardSize;
+        int nodes = 1 + constraints + choices * 4;
+
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        size = new int[constraints + 1];
+
+        picked = new int[cellCount];
+        firstSolution = new int[cellCount];
+
+        // Link the root and the column headers in a circle
+        for (int i = 0; i <= constraints; i++) {
+            left[i] = i == 0 ? constraints : i - 1;
+            right[i] = i == constraints ? 0 : i + 1;
+            up[i] = i;
+            down[i] = i;
+            column[i] = i;
+        }
+
+        // Add the four nodes for each choice (in order of cell, then number)
+        for (int choice = 0; choice < choices; choice++) {
+            int cell = choice / boardSize;
+            int row = cell / boardSize;
+            int col = cell % boardSize;
+            int box = row / boxSize * boxSize + col / boxSize;
+            int number = choice % boardSize;
+
+            int first = firstNode(choice);
+            int[] headers = new int[]{
+                    1 + cell,
+                    1 + cellCount + row * boardSize + number,
+                    1 + cellCount * 2 + col * boardSize + number,
+                    1 + cellCount * 3 + box * boardSize + number
+            };
+
+            for (int i = 0; i < 4; i++) {
+                int node = first + i;
+                int header = headers[i];
+
+                // Link it in a circle with the other nodes of the choice
+                left[node] = i == 0 ? first + 3 : node - 1;
+                right[node] = i == 3 ? first : node + 1;
+
+                // Put it at the bottom of its column
+                column[node] = header;
+                up[node] = up[header];
+                down[node] = header;
+                down[up[header]] = node;
+                up[header] = node;
+                size[header]++;
+            }
+        }
+    }
+
+    /**
+     * @return the solver for standard 9x9 boards belonging to the current thread
+     */
+    public static DancingLinksSolver forCurrentThread() {
+        return forCurrentThread(3);
+    }
+
+    /**
+     * @param boxSize the box size of the boards to solve
+     * @return the solver for boards with the box size belonging to the current thread
+     * @throws IllegalArgumentException if boxSize is not between SudokuBoard.MIN_BOX_SIZE and SudokuBoard.MAX_BOX_SIZE
+     */
+    public static DancingLinksSolver forCurrentThread(int boxSize) throws IllegalArgumentException {
+        if (boxSize < SudokuBoard.MIN_BOX_SIZE || boxSize > SudokuBoard.MAX_BOX_SIZE)
+            throw new IllegalArgumentException("Box size must be between " + SudokuBoard.MIN_BOX_SIZE + " and "
+                    + SudokuBoard.MAX_BOX_SIZE);
+
+        DancingLinksSolver[] solvers = THREAD_SOLVERS.get();
+        if (solvers[boxSize] == null)
+            solvers[boxSize] = new DancingLinksSolver(boxSize);
+
+        return solvers[boxSize];
+    }
+
+    /**
+     * Solves a board.
+     * @param board the board we want to solve
+     * @return the solved board (if possible). Null if the board cannot be solved
+     * @throws IllegalArgumentException if the board has a different box size than the solver
+     */
+    public SudokuBoard solve(SudokuBoard board) throws IllegalArgumentException {
+        if (search(board, 1, Budget.UNLIMITED) == 0)
+            return null;
+
+        return firstSolution(board);
+    }
+
+    /**
+     * Solves a board, stopping early if the budget runs out.
+     * @param board the board we want to solve
+     * @param budget the budget of the search
+     * @return the solved board if it was FOUND, NOT_FOUND if the board cannot be solved, or why the budget ran out
+     * @throws IllegalArgumentException if the board has a different box size than the solver
+     */
+    public SearchResult<SudokuBoard> solve(SudokuBoard board, Budget budget) throws IllegalArgumentException {
+        int found = search(board, 1, budget);
+        if (stopped != null)
+            return new SearchResult<>(stopped, null);
+        else if (found == 0)
+            return new SearchResult<>(SearchResult.Status.NOT_FOUND, null);
+
+        return new SearchResult<>(SearchResult.Status.FOUND, firstSolution(board));
+    }
+
+    /**
+     * Solves a board, trying the choices at each step in a random order, so the solution is a random one out of the
+     * board's solutions. This is used to fill in large boards, where some random starts lead into dead ends too big to
+     * search, so the search gives up once it has tried a certain amount of choices.
+     * @param board the board we want to solve
+     * @param random the random number generator to order the choices with
+     * @param maxNodes the most choices to try before giving up
+     * @return the solved board, or null if the board cannot be solved or the search gave up
+     * @throws IllegalArgumentException if the board has a different box size than the solver
+     */
+    public SudokuBoard solveRandomly(SudokuBoard board, RandomGenerator random, long maxNodes)
+            throws IllegalArgumentException {
+        this.random = random;
+        nodesLeft = maxNodes;
+
+        try {
+            if (search(board, 1, Budget.UNLIMITED) == 0)
+                return null;
+        } finally {
+            this.random = null;
+        }
+
+        return firstSolution(board);
+    }
+
+    /**
+     * @param board the board that was searched
+     * @return a copy of the board with the first solution found filled in
+     */
+    private SudokuBoard firstSolution(SudokuBoard board) {
+        SudokuBoard solution = new SudokuBoard(board);
+        for (int i = 0; i < cellCount; i++) {
+            int choice = firstSolution[i];
+            solution.setCell(choice / boardSize, choice % boardSize + 1);
+        }
+
+        return solution;
+    }
+
+    /**
+     * Counts the solutions of a board, stopping once the limit is reached.
+     * @param board the board we want to count the solutions of
+     * @param limit the most solutions we care about (2 is enough to tell if a solution is unique)
+     * @return the amount of solutions the board has, or limit if it has at least that many
+     * @throws IllegalArgumentException if limit is less than 1, or if the board has a different box size than the
+     * solver
+     */
+    public int countSolutions(SudokuBoard board, int limit) throws IllegalArgumentException {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be positive");
+
+        return search(board, limit, Budget.UNLIMITED);
+    }
+
+    /**
+     * Counts the solutions of a board like {@link #countSolutions(SudokuBoard, int)}, stopping early if the budget
+     * runs out.
+     * @param board the board we want to count the solutions of
+     * @param limit the most solutions we care about (2 is enough to tell if a solution is unique)
+     * @param budget the budget of the search
+     * @return the amount of solutions (at most limit) if there are any, NOT_FOUND if there are none, or why the budget
+     * ran out
+     * @throws IllegalArgumentException if limit is less than 1, or if the board has a different box size than the
+     * solver
+     */
+    public SearchResult<Integer> countSolutions(SudokuBoard board, int limit, Budget budget)
+            throws IllegalArgumentException {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be positive");
+
+        int found = search(board, limit, budget);
+        if (stopped != null)
+            return new SearchResult<>(stopped, null);
+        else if (found == 0)
+            return new SearchResult<>(SearchResult.Status.NOT_FOUND, null);
+
+        return new SearchResult<>(SearchResult.Status.FOUND, found);
+    }
+
+    /**
+     * Picks the choices given by the board, searches the rest of the matrix, and then puts the matrix back to how it
+     * was.
+     * @param board the board we want to search the solutions of
+     * @param limit the amount of solutions after which we stop searching
+     * @param budget the budget of the search (if it runs out, stopped says why)
+     * @return the amount of solutions found (at most limit)
+     * @throws IllegalArgumentException if the board has a different box size than the solver
+     */
+    private int search(SudokuBoard board, int limit, Budget budget) throws IllegalArgumentException {
+        if (board.getBoxSize() != boxSize)
+            throw new IllegalArgumentException("Solver is for boards with box size " + boxSize);
+
+        this.budget = budget;
+        stopped = budget.check();
+        if (stopped != null || !board.isValid())
+            return 0;
+
+        solutionCount = 0;
+        givenCount = 0;
+
+        // Pick every choice the board already made
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                int cellNum = board.getCell(row, col);
+                if (cellNum != 0) {
+                    int choice = (row * boardSize + col) * boardSize + cellNum - 1;
+                    picked[givenCount++] = choice;
+                    pick(firstNode(choice));
+                }
+            }
+        }
+
+        nodes = 0;
+        backtracks = 0;
+        maxDepth = 0;
+        search(givenCount, limit);
+        budget.charge(nodes & (Budget.CHECK_INTERVAL - 1));
+
+        MetricsListener listener = Metrics.listener();
+        if (listener != null)
+            listener.searchFinished(SolverEngine.DANCING_LINKS, nodes, backtracks, maxDepth);
+
+        // Unpick the givens in reverse so every link is restored
+        while (givenCount > 0)
+            unpick(firstNode(picked[--givenCount]));
+
+        return solutionCount;
+    }
+
+    /**
+     * Runs Algorithm X from the current state of the matrix.
+     * @param depth how many choices have been picked so far
+     * @param limit the amount of solutions after which we stop searching
+     * @return if the search should stop (the limit has been reached)
+     */
+    private boolean search(int depth, int limit) {
+        // If every constraint is satisfied, we have a solution
+        if (right[0] == 0) {
+            if (solutionCount++ == 0)
+                System.arraycopy(picked, 0, firstSolution, 0, cellCount);
+
+            return solutionCount >= limit;
+        }
+
+        // Branch on the column with the fewest choices left
+        int best = right[0];
+        for (int c = right[best]; c != 0; c = right[c]) {
+            if (size[c] < size[best])
+                best = c;
+        }
+
+        // If some constraint cannot be satisfied anymore, this is a dead end
+        if (size[best] == 0) {
+            backtracks++;
+            return false;
+        }
+
+        boolean stop = false;
+        cover(best);
+
+        // When randomizing, start at a random choice of the column and wrap around past the header
+        int start = down[best];
+        if (random != null) {
+            for (int skip = random.nextInt(size[best]); skip > 0; skip--)
+                start = down[start];
+        }
+
+        int node = start;
+        do {
+            if (node == best)
+                continue;
+
+            // When randomizing, give up (by stopping without a solution) once the search has gone on too long
+            if (random != null && --nodesLeft < 0) {
+                stop = true;
+                break;
+            }
+
+            // Every so often, see if the budget has run out
+            if ((++nodes & (Budget.CHECK_INTERVAL - 1)) == 0) {
+                budget.charge(Budget.CHECK_INTERVAL);
+                stopped = budget.check();
+                if (stopped != null) {
+                    stop = true;
+                    break;
+                }
+            }
+
+            picked[depth] = (node - constraints - 1) / 4;
+            if (depth + 1 - givenCount > maxDepth)
+                maxDepth = depth + 1 - givenCount;
+
+            for (int j = right[node]; j != node; j = right[j])
+                cover(column[j]);
+
+            stop = search(depth + 1, limit);
+
+            for (int j = left[node]; j != node; j = left[j])
+                uncover(column[j]);
+        } while (!stop && (node = down[node]) != start);
+
+        uncover(best);
+        return stop;
+    }
+
+    /**
+     * Picks a choice, covering every column it satisfies.
+     * @param node the first node of the choice
+     */
+    private void pick(int node) {
+        cover(column[node]);
+        for (int j = right[node]; j != node; j = right[j])
+            cover(column[j]);
+    }
+
+    /**
+     * Undoes {@link #pick(int)}.
+     * @param node the first node of the choice
+     */
+    private void unpick(int node) {
+        for (int j = left[node]; j != node; j = left[j])
+            uncover(column[j]);
+        uncover(column[node]);
+    }
+
+    /**
+     * Removes a column from the header list and every row that has a node in it from the other columns.
+     * @param header the column header to cover
+     */
+    private void cover(int header) {
+        right[left[header]] = right[header];
+        left[right[header]] = left[header];
+
+        for (int i = down[header]; i != header; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                size[column[j]]--;
+            }
+        }
+    }
+
+    /**
+     * Undoes {@link #cover(int)}, relinking everything in the reverse order it was removed.
+     * @param header the column header to uncover
+     */
+    private void uncover(int header) {
+        for (int i = up[header]; i != header; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+
+        right[left[header]] = header;
+        left[right[header]] = header;
+    }
+
+    /**
+     * @param choice the choice (cell * size + number - 1)
+     * @return the index of the first of the four nodes of the choice
+     */
+    private int firstNode(int choice) {
+        return 1 + constraints + choice * 4;
+    }
+}
@@ -0,0 +1,105 @@
+package sudoku;
+
+/**
+ * The difficulty levels a puzzle can be generated at. Each level is a band of {@link Technique}s: a puzzle is at a
+ * level when the hardest technique it needs (as graded by {@link DifficultyGrader}) is in the level's band. Each level
+ * also has the amount of numbers left that puzzles are generated with. These are the amounts each level was before
+ * puzzles were graded, so a level still starts with as many numbers as it always has; puzzles which miss the band are
+ * just generated again.
+ * <p>
+ * {@link #EXPERT} is the exception: its band overlaps the levels before it, and what sets its puzzles apart is how few
+ * numbers they start with, which only the {@link MinimalPuzzleGenerator} reaches. A grade alone is never expert.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public enum Difficulty {
+    /**
+     * Puzzles that only need hidden singles.
+     */
+    EASY(35, Technique.HIDDEN_SINGLE, Technique.HIDDEN_SINGLE, null),
+    /**
+     * Puzzles that need naked singles.
+     */
+    MEDIUM(30, Technique.NAKED_SINGLE, Technique.NAKED_SINGLE, null),
+    /**
+     * Puzzles that need ruling out candidates, from pointing up to X-wings.
+     */
+    HARD(26, Technique.POINTING, Technique.X_WING, null),
+    /**
+     * Puzzles that need trial and error.
+     */
+    IMPOSSIBLE(22, Technique.GUESSING, Technique.GUESSING, null),
+    /**
+     * Puzzles with only 21 numbers left that need more than singles (kept last, since pool files store levels by
+     * their order).
+     */
+    EXPERT(21, Technique.POINTING, Technique.GUESSING, MinimalPuzzleGenerator.NAME);
+
+    /**
+     * The amount of numbers left on the board when generating puzzles at this level.
+     */
+    private final int numbersLeft;
+    /**
+     * The easiest technique that can be the hardest technique a puzzle at this level needs.
+     */
+    private final Technique easiest;
+    /**
+     * The hardest technique a puzzle at this level can need.
+     */
+    private final Technique hardest;
+    /**
+     * The name of the generator puzzles at this level are made with (null for the default generator).
+     */
+    private final String generator;
+
+    /**
+     * @param numbersLeft the amount of numbers left on the board when generating puzzles at this level
+     * @param easiest the easiest technique that can be the hardest technique a puzzle at this level needs
+     * @param hardest the hardest technique a puzzle at this level can need
+     * @param generator the name of the generator puzzles at this level are made with (null for the default generator)
+     */
+    Difficulty(int numbersLeft, Technique easiest, Technique hardest, String generator) {
+        this.numbersLeft = numbersLeft;
+        this.easiest = easiest;
+        this.hardest = hardest;
+        this.generator = generator;
+    }
+
+    /**
+     * @return the amount of numbers left on the board when generating puzzles at this level
+     */
+    public int getNumbersLeft() {
+        return numbersLeft;
+    }
+
+    /**
+     * @return the generator puzzles at this level are made with
+     * @throws IllegalStateException if the default generator is misconfigured
+     */
+    public PuzzleGenerator getGenerator() throws IllegalStateException {
+        return generator == null ? Engines.defaultGenerator() : Engines.generator(generator);
+    }
+
+    /**
+     * @param grade the grade of a puzzle
+     * @return if a puzzle with the grade is at this level
+     */
+    public boolean contains(Grade grade) {
+        return grade.getHardest().compareTo(easiest) >= 0 && grade.getHardest().compareTo(hardest) <= 0;
+    }
+
+    /**
+     * @param grade the grade of a puzzle
+     * @return the level a puzzle with the grade is at (never {@link #EXPERT}, since the levels before it cover every
+     * technique)
+     */
+    public static Difficulty of(Grade grade) {
+        for (Difficulty difficulty : values()) {
+            if (difficulty.contains(grade))
+                return difficulty;
+        }
+
+        // Every technique is in some band, so this can't happen
+        throw new IllegalStateException("No difficulty contains " + grade);
+    }
+}
@@ -0,0 +1,484 @@
+package sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Grades how hard a puzzle is by solving it the way a person would. Each step, the grader uses the easiest
+ * {@link Technique} that makes progress (either filling in a cell or ruling a number out of a cell), and then starts
+ * over from the easiest technique. The grade is the hardest technique that was needed, along with a score adding up
+ * the weight of every step. If no technique makes progress, the puzzle needs guessing and the rest of it is not
+ * graded.
+ * <p>
+ * Candidates are kept as bitmasks, so a grader can grade thousands of puzzles a second. A grader can be reused for any
+ * number of puzzles, but it should not be shared between threads.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class DifficultyGrader {
+    /**
+     * The cells of each unit: rows 0-8, then columns 9-17, then boxes 18-26.
+     */
+    private static final int[][] UNITS = new int[27][9];
+    /**
+     * The 20 other cells that share a row, column, or box with each cell.
+     */
+    private static final int[][] PEERS = new int[81][20];
+
+    static {
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                UNITS[i][j] = i * 9 + j;
+                UNITS[9 + i][j] = j * 9 + i;
+                UNITS[18 + i][j] = (i / 3 * 3 + j / 3) * 9 + i % 3 * 3 + j % 3;
+            }
+        }
+
+        for (int cell = 0; cell < 81; cell++) {
+            int count = 0;
+            for (int other = 0; other < 81; other++) {
+                if (other != cell && (other / 9 == cell / 9 || other % 9 == cell % 9 || box(other) == box(cell)))
+                    PEERS[cell][count++] = other;
+            }
+        }
+    }
+
+    /**
+     * Each thread keeps its own grader around so its arrays are only allocated once.
+     */
+    private static final ThreadLocal<DifficultyGrader> THREAD_GRADER = ThreadLocal.withInitial(DifficultyGrader::new);
+
+    /**
+     * The numbers in each cell (0 if empty).
+     */
+    private final int[] cells;
+    /**
+     * The candidates of each empty cell as a bitmask (0 for filled cells).
+     */
+    private final int[] candidates;
+    /**
+     * How many times each technique has been used, indexed by ordinal.
+     */
+    private final int[] uses;
+    /**
+     * Scratch space for the cells of a unit each number fits in (used by hidden pairs).
+     */
+    private final int[] places;
+    /**
+     * Scratch space for the positions a number fits in along each line (used by X-wings).
+     */
+    private final int[] positions;
+    /**
+     * How many cells are still empty.
+     */
+    private int emptyCount;
+
+    /**
+     * Constructs a grader.
+     */
+    public DifficultyGrader() {
+        cells = new int[81];
+        candidates = new int[81];
+        uses = new int[Technique.values().length];
+        places = new int[10];
+        positions = new int[9];
+    }
+
+    /**
+     * @return the grader belonging to the current thread
+     */
+    public static DifficultyGrader forCurrentThread() {
+        return THREAD_GRADER.get();
+    }
+
+    /**
+     * @param puzzle the puzzle to grade (it is not changed)
+     * @return the grade of the puzzle
+     * @throws IllegalArgumentException if the puzzle is invalid or is not 9x9
+     */
+    public Grade grade(SudokuBoard puzzle) throws IllegalArgumentException {
+        if (puzzle.getBoxSize() != 3)
+            throw new IllegalArgumentException("Only 9x9 puzzles can be graded");
+        else if (!puzzle.isValid())
+            throw new IllegalArgumentException("Puzzle is invalid");
+
+        load(puzzle);
+
+        Technique hardest = Technique.HIDDEN_SINGLE;
+        int score = 0;
+
+        while (emptyCount > 0) {
+            Technique used = step();
+
+            if (used == null) {
+                // Nothing a person could spot helps, so the rest of the puzzle is trial and error
+                used = Technique.GUESSING;
+                emptyCount = 0;
+            }
+
+            uses[used.ordinal()]++;
+            score += used.getWeight();
+            if (used.compareTo(hardest) > 0)
+                hardest = used;
+        }
+
+        return new Grade(hardest, score, uses);
+    }
+
+    /**
+     * Loads a puzzle into the grader and works out the candidates of each cell.
+     * @param puzzle the puzzle to load
+     */
+    private void load(SudokuBoard puzzle) {
+        emptyCount = 0;
+        for (int i = 0; i < uses.length; i++)
+            uses[i] = 0;
+
+        for (int cell = 0; cell < 81; cell++) {
+            cells[cell] = puzzle.getCell(cell);
+            if (cells[cell] == 0) {
+                candidates[cell] = puzzle.getCandidates(cell / 9, cell % 9);
+                emptyCount++;
+            } else {
+                candidates[cell] = 0;
+            }
+        }
+    }
+
+    /**
+     * Makes progress with the easiest technique that can.
+     * @return the technique used, or null if no technique made progress
+     */
+    private Technique step() {
+        if (hiddenSingle())
+            return Technique.HIDDEN_SINGLE;
+        else if (nakedSingle())
+            return Technique.NAKED_SINGLE;
+        else if (pointing())
+            return Technique.POINTING;
+        else if (boxLine())
+            return Technique.BOX_LINE;
+        else if (nakedPair())
+            return Technique.NAKED_PAIR;
+        else if (hiddenPair())
+            return Technique.HIDDEN_PAIR;
+        else if (nakedTriple())
+            return Technique.NAKED_TRIPLE;
+        else if (xWing())
+            return Technique.X_WING;
+        else
+            return null;
+    }
+
+    /**
+     * Fills in one number that only fits in one cell of a unit.
+     * @return if a cell was filled
+     */
+    private boolean hiddenSingle() {
+        for (int[] unit : UNITS) {
+            // Find the numbers that are candidates of exactly one cell
+            int once = 0;
+            int twice = 0;
+            for (int cell : unit) {
+                twice |= once & candidates[cell];
+                once |= candidates[cell];
+            }
+
+            int single = once & ~twice;
+            if (single != 0) {
+                int bit = Integer.lowestOneBit(single);
+                for (int cell : unit) {
+                    if ((candidates[cell] & bit) != 0) {
+                        place(cell, Integer.numberOfTrailingZeros(bit));
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Fills in one cell that only has one candidate.
+     * @return if a cell was filled
+     */
+    private boolean nakedSingle() {
+        for (int cell = 0; cell < 81; cell++) {
+            if (Integer.bitCount(candidates[cell]) == 1) {
+                place(cell, Integer.numberOfTrailingZeros(candidates[cell]));
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Rules out numbers which, within a box, only fit in one row or column from the rest of that row or column.
+     * @return if any candidate was ruled out
+     */
+    private boolean pointing() {
+        for (int box = 18; box < 27; box++) {
+            for (int number = 1; number <= 9; number++) {
+                int bit = 1 << number;
+                int rows = 0;
+                int cols = 0;
+
+                for (int cell : UNITS[box]) {
+                    if ((candidates[cell] & bit) != 0) {
+                        rows |= 1 << (cell / 9);
+                        cols |= 1 << (cell % 9);
+                    }
+                }
+
+                boolean progress = false;
+                if (Integer.bitCount(rows) == 1)
+                    progress = eliminateOutside(Integer.numberOfTrailingZeros(rows), box, bit);
+                if (Integer.bitCount(cols) == 1)
+                    progress |= eliminateOutside(9 + Integer.numberOfTrailingZeros(cols), box, bit);
+
+                if (progress)
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Rules out numbers which, within a row or column, only fit in one box from the rest of that box.
+     * @return if any candidate was ruled out
+     */
+    private boolean boxLine() {
+        for (int line = 0; line < 18; line++) {
+            for (int number = 1; number <= 9; number++) {
+                int bit = 1 << number;
+                int boxes = 0;
+
+                for (int cell : UNITS[line]) {
+                    if ((candidates[cell] & bit) != 0)
+                        boxes |= 1 << box(cell);
+                }
+
+                if (Integer.bitCount(boxes) == 1 && eliminateOutside(18 + Integer.numberOfTrailingZeros(boxes), line,
+                        bit))
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Rules out the numbers of two cells in a unit which only have the same two candidates from the rest of the unit.
+     * @return if any candidate was ruled out
+     */
+    private boolean nakedPair() {
+        for (int[] unit : UNITS) {
+            for (int i = 0; i < 9; i++) {
+                int pair = candidates[unit[i]];
+                if (Integer.bitCount(pair) != 2)
+                    continue;
+
+                for (int j = i + 1; j < 9; j++) {
+                    if (candidates[unit[j]] == pair && eliminateFromUnit(unit, pair, (1 << i) | (1 << j)))
+                        return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Rules out every other candidate from two cells which are the only places two numbers fit in a unit.
+     * @return if any candidate was ruled out
+     */
+    private boolean hiddenPair() {
+        for (int[] unit : UNITS) {
+            // For each number, which cells of the unit it fits in
+            Arrays.fill(places, 0);
+            for (int i = 0; i < 9; i++) {
+                for (int left = candidates[unit[i]]; left != 0; left &= left - 1)
+                    places[Integer.numberOfTrailingZeros(left)] |= 1 << i;
+            }
+
+            for (int first = 1; first <= 9; first++) {
+                if (Integer.bitCount(places[first]) != 2)
+                    continue;
+
+                for (int second = first + 1; second <= 9; second++) {
+                    if (places[second] != places[first])
+                        continue;
+
+                    int pair = (1 << first) | (1 << second);
+                    boolean progress = false;
+                    for (int left = places[first]; left != 0; left &= left - 1) {
+                        int cell = unit[Integer.numberOfTrailingZeros(left)];
+                        if ((candidates[cell] & ~pair) != 0) {
+                            candidates[cell] &= pair;
+                            progress = true;
+                        }
+                    }
+
+                    if (progress)
+                        return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Rules out the numbers of three cells in a unit which only have three candidates between them from the rest of
+     * the unit.
+     * @return if any candidate was ruled out
+     */
+    private boolean nakedTriple() {
+        for (int[] unit : UNITS) {
+            for (int i = 0; i < 9; i++) {
+                int first = candidates[unit[i]];
+                if (first == 0 || Integer.bitCount(first) > 3)
+                    continue;
+
+                for (int j = i + 1; j < 9; j++) {
+                    int second = candidates[unit[j]];
+                    if (second == 0 || Integer.bitCount(first | second) > 3)
+                        continue;
+
+                    for (int k = j + 1; k < 9; k++) {
+                        int third = candidates[unit[k]];
+                        int triple = first | second | third;
+
+                        if (third != 0 && Integer.bitCount(triple) == 3
+                                && eliminateFromUnit(unit, triple, (1 << i) | (1 << j) | (1 << k)))
+                            return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Rules out numbers which fit in the same two columns of two rows from the rest of those columns (and the same
+     * with rows and columns swapped).
+     * @return if any candidate was ruled out
+     */
+    private boolean xWing() {
+        for (int number = 1; number <= 9; number++) {
+            int bit = 1 << number;
+
+            // Lines 0-8 are rows (positions are columns), and lines 9-17 are columns (positions are rows)
+            for (int direction = 0; direction < 2; direction++) {
+                Arrays.fill(positions, 0);
+                for (int line = 0; line < 9; line++) {
+                    int[] unit = UNITS[direction * 9 + line];
+                    for (int i = 0; i < 9; i++) {
+                        if ((candidates[unit[i]] & bit) != 0)
+                            positions[line] |= 1 << i;
+                    }
+                }
+
+                for (int first = 0; first < 9; first++) {
+                    if (Integer.bitCount(positions[first]) != 2)
+                        continue;
+
+                    for (int second = first + 1; second < 9; second++) {
+                        if (positions[second] != positions[first])
+                            continue;
+
+                        boolean progress = false;
+                        for (int left = positions[first]; left != 0; left &= left - 1) {
+                            // The crossing line (a column when the lines are rows, and the other way around)
+                            int[] crossing = UNITS[(1 - direction) * 9 + Integer.numberOfTrailingZeros(left)];
+                            progress |= eliminateFromUnit(crossing, bit, (1 << first) | (1 << second));
+                        }
+
+                        if (progress)
+                            return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Rules a number out of every cell of a unit that is not also in another unit.
+     * @param unit the unit to rule the number out of
+     * @param keep the unit whose cells are left alone
+     * @param bit the bit of the number
+     * @return if any candidate was ruled out
+     */
+    private boolean eliminateOutside(int unit, int keep, int bit) {
+        boolean progress = false;
+
+        for (int cell : UNITS[unit]) {
+            if ((candidates[cell] & bit) != 0 && !contains(UNITS[keep], cell)) {
+                candidates[cell] &= ~bit;
+                progress = true;
+            }
+        }
+
+        return progress;
+    }
+
+    /**
+     * Rules numbers out of the cells of a unit.
+     * @param unit the cells of the unit
+     * @param numbers the bits of the numbers to rule out
+     * @param skip a bitmask of the positions within the unit to leave alone
+     * @return if any candidate was ruled out
+     */
+    private boolean eliminateFromUnit(int[] unit, int numbers, int skip) {
+        boolean progress = false;
+
+        for (int i = 0; i < 9; i++) {
+            if ((skip & (1 << i)) == 0 && (candidates[unit[i]] & numbers) != 0) {
+                candidates[unit[i]] &= ~numbers;
+                progress = true;
+            }
+        }
+
+        return progress;
+    }
+
+    /**
+     * Fills in a cell and rules its number out of every peer.
+     * @param cell the index of the cell
+     * @param number the number to fill in
+     */
+    private void place(int cell, int number) {
+        cells[cell] = number;
+        candidates[cell] = 0;
+        emptyCount--;
+
+        for (int peer : PEERS[cell])
+            candidates[peer] &= ~(1 << number);
+    }
+
+    /**
+     * @param unit the cells of a unit
+     * @param cell the index of a cell
+     * @return if the cell is in the unit
+     */
+    private static boolean contains(int[] unit, int cell) {
+        for (int other : unit) {
+            if (other == cell)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param cell the index of a cell
+     * @return the box the cell is in
+     */
+    private static int box(int cell) {
+        return cell / 9 / 3 * 3 + cell % 9 / 3;
+    }
+}
@@ -0,0 +1,135 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Looks up {@link Solver}s and {@link PuzzleGenerator}s by name. The built in engines are always available, and any
+ * jar on the class path can add more by listing them in META-INF/services/sudoku.Solver or
+ * META-INF/services/sudoku.PuzzleGenerator (see {@link ServiceLoader}). Names are not case sensitive, and a provided
+ * engine with the same name as a built in one replaces it.
+ * <p>
+ * The default engines can be picked without changing any code with the system properties {@value #SOLVER_PROPERTY}
+ * and {@value #GENERATOR_PROPERTY} (e.g. -Dsudoku.solver=DANCING_LINKS). Without them, the defaults are the original
+ * backtracking solver and generator.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class Engines {
+    /**
+     * The system property naming the default solver.
+     */
+    public static final String SOLVER_PROPERTY = "sudoku.solver";
+    /**
+     * The system property naming the default generator.
+     */
+    public static final String GENERATOR_PROPERTY = "sudoku.generator";
+
+    /**
+     * Every solver by upper case name (found when the class is loaded).
+     */
+    private static final Map<String, Solver> SOLVERS = new LinkedHashMap<>();
+    /**
+     * Every generator by upper case name (found when the class is loaded).
+     */
+    private static final Map<String, PuzzleGenerator> GENERATORS = new LinkedHashMap<>();
+
+    static {
+        for (SolverEngine engine : SolverEngine.values())
+            SOLVERS.put(key(engine.getName()), engine);
+        SOLVERS.put(ParallelSolver.NAME, new ParallelSolver());
+        for (Solver solver : ServiceLoader.load(Solver.class))
+            SOLVERS.put(key(solver.getName()), solver);
+
+        GENERATORS.put(BacktrackingGenerator.NAME, new BacktrackingGenerator());
+        GENERATORS.put(ParallelPuzzleGenerator.NAME, new ParallelPuzzleGenerator());
+        GENERATORS.put(MinimalPuzzleGenerator.NAME, new MinimalPuzzleGenerator());
+        for (PuzzleGenerator generator : ServiceLoader.load(PuzzleGenerator.class))
+            GENERATORS.put(key(generator.getName()), generator);
+    }
+
+    /**
+     * This class only has static methods, so it should not be constructed.
+     */
+    private Engines() {}
+
+    /**
+     * @param name the name of a solver
+     * @return the solver with the name
+     * @throws IllegalArgumentException if there is no solver with the name
+     */
+    public static Solver solver(String name) throws IllegalArgumentException {
+        Solver solver = SOLVERS.get(key(name));
+        if (solver == null)
+            throw new IllegalArgumentException("No solver named " + name + " (available: " + SOLVERS.keySet() + ")");
+
+        return solver;
+    }
+
+    /**
+     * @param name the name of a generator
+     * @return the generator with the name
+     * @throws IllegalArgumentException if there is no generator with the name
+     */
+    public static PuzzleGenerator generator(String name) throws IllegalArgumentException {
+        PuzzleGenerator generator = GENERATORS.get(key(name));
+        if (generator == null)
+            throw new IllegalArgumentException("No generator named " + name + " (available: " + GENERATORS.keySet()
+                    + ")");
+
+        return generator;
+    }
+
+    /**
+     * @return the solver named by the {@value #SOLVER_PROPERTY} property, or the backtracking solver if it is not set
+     * @throws IllegalStateException if there is no solver with the name the property gives
+     */
+    public static Solver defaultSolver() throws IllegalStateException {
+        try {
+            return solver(System.getProperty(SOLVER_PROPERTY, SolverEngine.BACKTRACKING.getName()));
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalStateException(SOLVER_PROPERTY + " is misconfigured: " + iae.getMessage());
+        }
+    }
+
+    /**
+     * @return the generator named by the {@value #GENERATOR_PROPERTY} property, or the backtracking generator if it
+     * is not set
+     * @throws IllegalStateException if there is no generator with the name the property gives
+     */
+    public static PuzzleGenerator defaultGenerator() throws IllegalStateException {
+        // This is not an IllegalArgumentException, so callers that retry failed generation don't retry forever
+        try {
+            return generator(System.getProperty(GENERATOR_PROPERTY, BacktrackingGenerator.NAME));
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalStateException(GENERATOR_PROPERTY + " is misconfigured: " + iae.getMessage());
+        }
+    }
+
+    /**
+     * @return every available solver
+     */
+    public static List<Solver> solvers() {
+        return Collections.unmodifiableList(new ArrayList<>(SOLVERS.values()));
+    }
+
+    /**
+     * @return every available generator
+     */
+    public static List<PuzzleGenerator> generators() {
+        return Collections.unmodifiableList(new ArrayList<>(GENERATORS.values()));
+    }
+
+    /**
+     * @param name the name of an engine
+     * @return the key the engine is stored under
+     */
+    private static String key(String name) {
+        return name.toUpperCase(Locale.ROOT);
+    }
+}
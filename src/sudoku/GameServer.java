@@ -0,0 +1,620 @@
+package sudoku;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hosts many games of sudoku at once over TCP. Each connection plays one {@link GameSession} at a time using a line
+ * based protocol, with one command per line and exactly one reply line per command:
+ * <ul>
+ *     <li>NEW [difficulty] - starts a new game (difficulty 1 - 5 or its name, easy by default). Replies
+ *     BOARD &lt;board&gt;</li>
+ *     <li>GUESS &lt;row&gt; &lt;col&gt; &lt;number&gt; - guesses a cell (row and col are 1 - 9). Replies CORRECT,
+ *     SOLVED &lt;time&gt;, INCORRECT &lt;incorrect&gt; &lt;max incorrect&gt;, LOST &lt;solution&gt;, or FILLED</li>
+ *     <li>BOARD - replies BOARD &lt;board&gt;</li>
+ *     <li>TIME - replies TIME &lt;time&gt; (the time of the game so far, or its final time if it is over)</li>
+ *     <li>QUIT - replies BYE and closes the connection</li>
+ * </ul>
+ * Boards are written in the line format of {@link BoardCodec} and times as hh:mm:ss. Anything that goes wrong with a
+ * command is replied to with ERR &lt;message&gt;. Connections that send nothing for too long are sent BYE idle and
+ * closed.
+ * <p>
+ * Every connection is handled by a single thread with a {@link Selector}, so idle players cost a little memory and no
+ * threads. Puzzles come from a {@link PuzzlePool}; taking one is handed off to a small set of threads, so the
+ * connections are never held up when the pool runs dry and a puzzle has to be generated on the spot.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class GameServer implements AutoCloseable {
+    /**
+     * The port the server listens on if none is given.
+     */
+    public static final int DEFAULT_PORT = 7777;
+    /**
+     * The longest command line accepted (anything longer closes the connection).
+     */
+    private static final int MAX_LINE_LENGTH = 256;
+    /**
+     * The longest time between checks for idle connections.
+     */
+    private static final long MAX_SWEEP_MILLIS = 1000;
+
+    /**
+     * The selector every connection is registered with.
+     */
+    private final Selector selector;
+    /**
+     * The channel accepting new connections.
+     */
+    private final ServerSocketChannel serverChannel;
+    /**
+     * Where puzzles come from.
+     */
+    private final PuzzlePool pool;
+    /**
+     * The threads which take puzzles out of the pool for NEW commands.
+     */
+    private final ExecutorService starters;
+    /**
+     * Work the other threads have handed back to the selector thread (new games that are ready).
+     */
+    private final Queue<Runnable> completions;
+
+    /**
+     * How many incorrect guesses end a game.
+     */
+    private final int maxIncorrect;
+    /**
+     * How long a connection can send nothing before it is closed (in milliseconds).
+     */
+    private final long idleTimeoutMillis;
+
+    /**
+     * How many connections are open.
+     */
+    private volatile int connectionCount;
+    /**
+     * If the server has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Constructs a server and starts listening (connections are not handled until {@link #run()} is called).
+     * @param port the port to listen on (0 picks any free port, see {@link #getPort()})
+     * @param pool where the server gets its puzzles (the server does not close it)
+     * @param maxIncorrect how many incorrect guesses end a game
+     * @param idleTimeoutMillis how long a connection can send nothing before it is closed
+     * @throws IllegalArgumentException if maxIncorrect or idleTimeoutMillis is less than 1
+     * @throws IOException if the port cannot be listened on
+     */
+    public GameServer(int port, PuzzlePool pool, int maxIncorrect, long idleTimeoutMillis)
+            throws IllegalArgumentException, IOException {
+        if (maxIncorrect < 1)
+            throw new IllegalArgumentException("Max incorrect guesses must be positive");
+        else if (idleTimeoutMillis < 1)
+            throw new IllegalArgumentException("Idle timeout must be positive");
+
+        this.pool = pool;
+        this.maxIncorrect = maxIncorrect;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+
+        completions = new ConcurrentLinkedQueue<>();
+        starters = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "game-server-starter");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * @return the port the server is listening on
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return how many connections are open
+     */
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    /**
+     * Handles connections on the current thread until the server is closed.
+     * @throws IOException if the selector fails
+     */
+    public void run() throws IOException {
+        long sweepMillis = Math.min(idleTimeoutMillis, MAX_SWEEP_MILLIS);
+        long nextSweep = System.currentTimeMillis() + sweepMillis;
+
+        try {
+            while (!closed) {
+                selector.select(sweepMillis);
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    if (!key.isValid())
+                        continue;
+
+                    if (key.isAcceptable())
+                        accept();
+                    else
+                        handle(key);
+                }
+
+                Runnable completion;
+                while ((completion = completions.poll()) != null)
+                    completion.run();
+
+                long now = System.currentTimeMillis();
+                if (now >= nextSweep) {
+                    evictIdle(now);
+                    nextSweep = now + sweepMillis;
+                }
+            }
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Stops the server. The thread in {@link #run()} closes every connection and returns.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    /**
+     * Accepts every waiting connection.
+     * @throws IOException if the server channel fails
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+            connectionCount++;
+        }
+    }
+
+    /**
+     * Reads from or writes to a connection that is ready, closing it if anything goes wrong.
+     * @param key the key of the connection
+     */
+    private void handle(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+
+        try {
+            if (key.isReadable())
+                read(key, connection);
+            if (key.isValid() && key.isWritable())
+                flush(key, connection);
+        } catch (IOException ioe) {
+            disconnect(key);
+        }
+    }
+
+    /**
+     * Reads whatever a connection has sent and runs each complete line as a command.
+     * @param key the key of the connection
+     * @param connection the connection
+     * @throws IOException if the connection fails
+     */
+    private void read(SelectionKey key, Connection connection) throws IOException {
+        if (connection.channel.read(connection.in) == -1) {
+            disconnect(key);
+            return;
+        }
+
+        connection.lastActive = System.currentTimeMillis();
+        process(key, connection);
+    }
+
+    /**
+     * Runs each complete line that has been read from a connection as a command. Lines after a NEW are left until the
+     * new game is ready.
+     * @param key the key of the connection
+     * @param connection the connection
+     */
+    private void process(SelectionKey key, Connection connection) {
+        ByteBuffer in = connection.in;
+        in.flip();
+
+        int lineStart = 0;
+        for (int i = 0; i < in.limit() && !connection.starting; i++) {
+            if (in.get(i) != '\n')
+                continue;
+
+            // Let Windows line endings through
+            int lineEnd = i > lineStart && in.get(i - 1) == '\r' ? i - 1 : i;
+            String line = StandardCharsets.US_ASCII.decode(in.slice(lineStart, lineEnd - lineStart)).toString();
+            lineStart = i + 1;
+
+            command(key, connection, line.trim());
+            // If the connection is done, nothing else it sent matters
+            if (!key.isValid() || connection.closing)
+                return;
+        }
+
+        in.position(lineStart);
+        in.compact();
+
+        // If the buffer filled up without a line ending, the line is too long to be a command
+        if (!in.hasRemaining() && !connection.starting) {
+            reply(key, connection, "ERR Line too long");
+            close(key, connection);
+        }
+    }
+
+    /**
+     * Runs one command from a connection.
+     * @param key the key of the connection
+     * @param connection the connection
+     * @param line the command line
+     */
+    private void command(SelectionKey key, Connection connection, String line) {
+        if (line.isEmpty())
+            return;
+
+        String[] words = line.split("\\s+");
+        GameSession game = connection.game;
+
+        switch (words[0].toUpperCase(Locale.ROOT)) {
+            case "NEW":
+                start(key, connection, words);
+                break;
+            case "GUESS":
+                guess(key, connection, words);
+                break;
+            case "BOARD":
+                if (game == null)
+                    reply(key, connection, "ERR No game in progress");
+                else
+                    reply(key, connection, "BOARD " + BoardCodec.toLine(game.getPuzzle().getPuzzle()));
+                break;
+            case "TIME":
+                if (game == null)
+                    reply(key, connection, "ERR No game in progress");
+                else
+                    reply(key, connection, "TIME " + game.getClock());
+                break;
+            case "QUIT":
+                reply(key, connection, "BYE");
+                close(key, connection);
+                break;
+            default:
+                reply(key, connection, "ERR Unknown command " + words[0]);
+        }
+    }
+
+    /**
+     * Starts a new game for a connection. The puzzle is taken from the pool on another thread, and the board is sent
+     * once it is ready (the connection's other commands wait until then).
+     * @param key the key of the connection
+     * @param connection the connection
+     * @param words the words of the command
+     */
+    private void start(SelectionKey key, Connection connection, String[] words) {
+        Difficulty difficulty;
+        try {
+            difficulty = words.length > 1 ? parseDifficulty(words[1]) : Difficulty.EASY;
+        } catch (IllegalArgumentException iae) {
+            reply(key, connection, "ERR " + iae.getMessage());
+            return;
+        }
+
+        // Stop reading until the game is ready, so commands are still answered in order
+        connection.starting = true;
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+
+        starters.execute(() -> {
+            SudokuPuzzle puzzle;
+            try {
+                puzzle = pool.take(difficulty);
+            } catch (IllegalStateException ise) {
+                puzzle = null;
+            }
+
+            SudokuPuzzle taken = puzzle;
+            completions.offer(() -> started(key, connection, taken));
+            selector.wakeup();
+        });
+    }
+
+    /**
+     * Finishes starting a new game on the selector thread once its puzzle is ready.
+     * @param key the key of the connection
+     * @param connection the connection
+     * @param puzzle the puzzle of the new game (null if the pool could not give one)
+     */
+    private void started(SelectionKey key, Connection connection, SudokuPuzzle puzzle) {
+        // If the connection closed while the puzzle was being taken, there is no one to play it
+        if (!key.isValid())
+            return;
+
+        connection.starting = false;
+        connection.lastActive = System.currentTimeMillis();
+
+        if (puzzle == null) {
+            reply(key, connection, "ERR Server is shutting down");
+            close(key, connection);
+            return;
+        }
+
+        connection.game = new GameSession(puzzle, maxIncorrect);
+        reply(key, connection, "BOARD " + BoardCodec.toLine(puzzle.getPuzzle()));
+        if (!key.isValid())
+            return;
+
+        // Any commands that came in behind the NEW are still in the buffer
+        key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+        process(key, connection);
+    }
+
+    /**
+     * Makes a guess in a connection's game.
+     * @param key the key of the connection
+     * @param connection the connection
+     * @param words the words of the command
+     */
+    private void guess(SelectionKey key, Connection connection, String[] words) {
+        GameSession game = connection.game;
+        if (game == null || game.isOver()) {
+            reply(key, connection, "ERR No game in progress");
+            return;
+        } else if (words.length != 4) {
+            reply(key, connection, "ERR Usage: GUESS <row> <col> <number>");
+            return;
+        }
+
+        GameSession.Result result;
+        try {
+            result = game.guess(Integer.parseInt(words[1]) - 1, Integer.parseInt(words[2]) - 1,
+                    Integer.parseInt(words[3]));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            // A number out of range is an error, not an incorrect guess (NumberFormatException is caught here too)
+            reply(key, connection, "ERR Row, column, and number must be 1 - 9");
+            return;
+        }
+
+        switch (result) {
+            case SOLVED:
+                reply(key, connection, "SOLVED " + game.getClock());
+                break;
+            case INCORRECT:
+                reply(key, connection, "INCORRECT " + game.getIncorrect() + " " + game.getMaxIncorrect());
+                break;
+            case LOST:
+                reply(key, connection, "LOST " + BoardCodec.toLine(game.getPuzzle().getSolution()));
+                break;
+            default:
+                reply(key, connection, result.name());
+        }
+    }
+
+    /**
+     * @param word a difficulty as its number (1 - 5) or its name
+     * @return the difficulty
+     * @throws IllegalArgumentException if the word is not a difficulty
+     */
+    private static Difficulty parseDifficulty(String word) throws IllegalArgumentException {
+        Difficulty[] difficulties = Difficulty.values();
+        try {
+            int level = Integer.parseInt(word);
+            if (level >= 1 && level <= difficulties.length)
+                return difficulties[level - 1];
+        } catch (NumberFormatException nfe) {
+            for (Difficulty difficulty : difficulties) {
+                if (difficulty.name().equalsIgnoreCase(word))
+                    return difficulty;
+            }
+        }
+
+        throw new IllegalArgumentException("Difficulty must be 1 - " + difficulties.length);
+    }
+
+    /**
+     * Queues a reply line for a connection and writes as much of it as the connection will take right away.
+     * @param key the key of the connection
+     * @param connection the connection
+     * @param line the reply (without a line ending)
+     */
+    private void reply(SelectionKey key, Connection connection, String line) {
+        connection.out.offer(StandardCharsets.US_ASCII.encode(line + "\n"));
+
+        try {
+            flush(key, connection);
+        } catch (IOException ioe) {
+            disconnect(key);
+        }
+    }
+
+    /**
+     * Writes queued replies until they are all written or the connection cannot take any more. If anything is left,
+     * the connection is watched for when it can be written to again.
+     * @param key the key of the connection
+     * @param connection the connection
+     * @throws IOException if the connection fails
+     */
+    private void flush(SelectionKey key, Connection connection) throws IOException {
+        while (!connection.out.isEmpty()) {
+            ByteBuffer buffer = connection.out.peek();
+            connection.channel.write(buffer);
+
+            // If the connection is full, wait until it can be written to
+            if (buffer.hasRemaining()) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                return;
+            }
+            connection.out.poll();
+        }
+
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        if (connection.closing)
+            disconnect(key);
+    }
+
+    /**
+     * Closes every connection that has been idle for longer than the idle timeout.
+     * @param now the current time in milliseconds
+     */
+    private void evictIdle(long now) {
+        for (SelectionKey key : selector.keys()) {
+            if (!(key.attachment() instanceof Connection) || !key.isValid())
+                continue;
+
+            Connection connection = (Connection) key.attachment();
+            // If the connection is waiting on a new game, it is the server that is slow, not the player
+            if (!connection.starting && !connection.closing && now - connection.lastActive > idleTimeoutMillis) {
+                reply(key, connection, "BYE idle");
+                close(key, connection);
+            }
+        }
+    }
+
+    /**
+     * Stops reading from a connection and closes it once its replies are written.
+     * @param key the key of the connection
+     * @param connection the connection
+     */
+    private void close(SelectionKey key, Connection connection) {
+        connection.closing = true;
+        if (!key.isValid())
+            return;
+
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+        if (connection.out.isEmpty())
+            disconnect(key);
+    }
+
+    /**
+     * Closes a connection right away.
+     * @param key the key of the connection
+     */
+    private void disconnect(SelectionKey key) {
+        if (!key.isValid())
+            return;
+
+        key.cancel();
+        connectionCount--;
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {} // It is being thrown away anyway
+    }
+
+    /**
+     * Closes every connection, the server channel, and the selector.
+     */
+    private void shutdown() {
+        starters.shutdownNow();
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection)
+                disconnect(key);
+        }
+
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException ignored) {} // Nothing else can be done
+    }
+
+    /**
+     * The state of one connection.
+     */
+    private static class Connection {
+        /**
+         * The channel of the connection.
+         */
+        private final SocketChannel channel;
+        /**
+         * What has been read but not yet run as a command.
+         */
+        private final ByteBuffer in;
+        /**
+         * The replies waiting to be written.
+         */
+        private final ArrayDeque<ByteBuffer> out;
+
+        /**
+         * The game being played (null before the first NEW).
+         */
+        private GameSession game;
+        /**
+         * When the connection last sent something (in milliseconds).
+         */
+        private long lastActive;
+        /**
+         * If the connection is waiting for a new game to start.
+         */
+        private boolean starting;
+        /**
+         * If the connection should be closed once its replies are written.
+         */
+        private boolean closing;
+
+        /**
+         * @param channel the channel of the connection
+         */
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+            in = ByteBuffer.allocate(MAX_LINE_LENGTH);
+            out = new ArrayDeque<>();
+            lastActive = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Runs a server from the command line until it is killed.
+     * @param args optionally the port to listen on (defaults to {@value #DEFAULT_PORT}), the idle timeout in seconds
+     *             (defaults to 300), and how many incorrect guesses end a game (defaults to 3)
+     */
+    public static void main(String[] args) {
+        int port;
+        long idleSeconds;
+        int maxIncorrect;
+        try {
+            port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            idleSeconds = args.length > 1 ? Long.parseLong(args[1]) : 300;
+            maxIncorrect = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        } catch (NumberFormatException nfe) {
+            System.out.println("Usage: GameServer [port] [idle seconds] [max incorrect]");
+            return;
+        }
+
+        // Keep plenty of puzzles ready, since many players can start a game at once
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        try (PuzzlePool pool = new PuzzlePool(16, 64, workers, null);
+             GameServer server = new GameServer(port, pool, maxIncorrect, idleSeconds * 1000)) {
+            System.out.println("Listening on port " + server.getPort());
+            server.run();
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+}
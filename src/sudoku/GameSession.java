@@ -0,0 +1,171 @@
+package sudoku;
+
+/**
+ * One game of sudoku being played: a puzzle, how long the game has taken, and how many incorrect guesses have been
+ * made. A game is over once the puzzle is solved or the player runs out of incorrect guesses. The session only keeps
+ * the rules of the game, so the same game can be played from the command line or over a {@link GameServer}.
+ * <p>
+ * A session is not safe to share between threads.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class GameSession {
+    /**
+     * What happened when a guess was made.
+     */
+    public enum Result {
+        /**
+         * The guess was correct and was placed in the puzzle.
+         */
+        CORRECT,
+        /**
+         * The guess was correct and it was the last empty cell, so the game is over.
+         */
+        SOLVED,
+        /**
+         * The guess was incorrect.
+         */
+        INCORRECT,
+        /**
+         * The guess was incorrect and it was the last one allowed, so the game is over.
+         */
+        LOST,
+        /**
+         * The cell was already filled, so nothing happened.
+         */
+        FILLED
+    }
+
+    /**
+     * The puzzle being played.
+     */
+    private final SudokuPuzzle puzzle;
+    /**
+     * The size of the puzzle (the highest cell number which can be guessed).
+     */
+    private final int size;
+    /**
+     * How many incorrect guesses end the game.
+     */
+    private final int maxIncorrect;
+    /**
+     * When the game started (in milliseconds, from System.currentTimeMillis()).
+     */
+    private final long start;
+
+    /**
+     * How many incorrect guesses have been made.
+     */
+    private int incorrect;
+    /**
+     * When the game ended (only meaningful if the game is over).
+     */
+    private long end;
+    /**
+     * If the game has been won or lost.
+     */
+    private boolean over;
+
+    /**
+     * Starts a game.
+     * @param puzzle the puzzle to play
+     * @param maxIncorrect how many incorrect guesses end the game
+     * @throws IllegalArgumentException if maxIncorrect is less than 1
+     */
+    public GameSession(SudokuPuzzle puzzle, int maxIncorrect) throws IllegalArgumentException {
+        if (maxIncorrect < 1)
+            throw new IllegalArgumentException("Max incorrect guesses must be positive");
+
+        this.puzzle = puzzle;
+        size = puzzle.getPuzzle().getSize();
+        this.maxIncorrect = maxIncorrect;
+        start = System.currentTimeMillis();
+    }
+
+    /**
+     * Guesses a cell is a certain number.
+     * @param row the row of the cell we want to guess (0 - (size - 1))
+     * @param col the column of the cell we want to guess (0 - (size - 1))
+     * @param cell the cell number we want to guess (1 - size)
+     * @return what happened
+     * @throws IndexOutOfBoundsException if the row or column is out of bounds
+     * @throws IllegalArgumentException if the cell number is not 1 - size (so it does not count as a guess)
+     * @throws IllegalStateException if the game is already over
+     */
+    public Result guess(int row, int col, int cell)
+            throws IndexOutOfBoundsException, IllegalArgumentException, IllegalStateException {
+        if (over)
+            throw new IllegalStateException("Game is over");
+        else if (cell < 1 || cell > size)
+            throw new IllegalArgumentException("Cell number must be 1 - " + size);
+        else if (!puzzle.validGuess(row, col))
+            return Result.FILLED;
+
+        if (puzzle.guess(row, col, cell)) {
+            // If that was the last empty cell, the game is won
+            if (puzzle.isSolved()) {
+                finish();
+                return Result.SOLVED;
+            }
+            return Result.CORRECT;
+        }
+
+        // If that was the last guess allowed, the game is lost
+        if (++incorrect == maxIncorrect) {
+            finish();
+            return Result.LOST;
+        }
+        return Result.INCORRECT;
+    }
+
+    /**
+     * Ends the game, stopping its clock.
+     */
+    private void finish() {
+        over = true;
+        end = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the puzzle being played
+     */
+    public SudokuPuzzle getPuzzle() {
+        return puzzle;
+    }
+
+    /**
+     * @return how many incorrect guesses have been made
+     */
+    public int getIncorrect() {
+        return incorrect;
+    }
+
+    /**
+     * @return how many incorrect guesses end the game
+     */
+    public int getMaxIncorrect() {
+        return maxIncorrect;
+    }
+
+    /**
+     * @return if the game has been won or lost
+     */
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * @return how long the game has taken so far (or took, if it is over) in milliseconds
+     */
+    public long getElapsedMillis() {
+        return (over ? end : System.currentTimeMillis()) - start;
+    }
+
+    /**
+     * @return how long the game has taken in hh:mm:ss format
+     * @see CommandLineUI#millisToClock(long)
+     */
+    public String getClock() {
+        return CommandLineUI.millisToClock(getElapsedMillis());
+    }
+}
@@ -0,0 +1,64 @@
+package sudoku;
+
+/**
+ * How hard a puzzle is for a person to solve: the hardest technique the puzzle needed, and a score which adds up the
+ * weight of every technique used along the way.
+ * @see DifficultyGrader
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class Grade {
+    /**
+     * The hardest technique needed to solve the puzzle.
+     */
+    private final Technique hardest;
+    /**
+     * The sum of the weights of every technique used.
+     */
+    private final int score;
+    /**
+     * How many times each technique was used, indexed by ordinal.
+     */
+    private final int[] uses;
+
+    /**
+     * @param hardest the hardest technique needed to solve the puzzle
+     * @param score the sum of the weights of every technique used
+     * @param uses how many times each technique was used, indexed by ordinal
+     */
+    Grade(Technique hardest, int score, int[] uses) {
+        this.hardest = hardest;
+        this.score = score;
+        this.uses = uses.clone();
+    }
+
+    /**
+     * @return the hardest technique needed to solve the puzzle
+     */
+    public Technique getHardest() {
+        return hardest;
+    }
+
+    /**
+     * @return the sum of the weights of every technique used
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @param technique a technique
+     * @return how many times the technique was used
+     */
+    public int getUses(Technique technique) {
+        return uses[technique.ordinal()];
+    }
+
+    /**
+     * @return a String representation of the grade as hardest technique (score)
+     */
+    @Override
+    public String toString() {
+        return hardest + " (" + score + ")";
+    }
+}
@@ -0,0 +1,319 @@
+package sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulates many players at once against a {@link GameServer}, for load testing it locally. Each simulated player
+ * connects, then plays games back to back: it starts a game, solves the board itself, and guesses the empty cells in a
+ * random order, sometimes guessing wrong on purpose. Every command is timed, and once all the players are done the
+ * throughput and latencies of the server are printed.
+ * <p>
+ * Each player has its own thread and blocking connection, so a few thousand players are practical on one machine.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class LoadTestClient {
+    /**
+     * The chance of each guess being made wrong on purpose.
+     */
+    private static final double WRONG_GUESS_CHANCE = 0.02;
+
+    /**
+     * The host the server is on.
+     */
+    private final String host;
+    /**
+     * The port the server is listening on.
+     */
+    private final int port;
+    /**
+     * The difficulty of the games played.
+     */
+    private final Difficulty difficulty;
+
+    /**
+     * Constructs a load test client.
+     * @param host the host the server is on
+     * @param port the port the server is listening on
+     * @param difficulty the difficulty of the games played
+     */
+    public LoadTestClient(String host, int port, Difficulty difficulty) {
+        this.host = host;
+        this.port = port;
+        this.difficulty = difficulty;
+    }
+
+    /**
+     * The results of one simulated player (or of all of them, once merged).
+     */
+    public static class Result {
+        /**
+         * How long each command took to be answered, in nanoseconds (only the first count are used).
+         */
+        private long[] latencies = new long[1024];
+        /**
+         * How many commands were sent.
+         */
+        private int count;
+        /**
+         * How many games were solved.
+         */
+        private int solved;
+        /**
+         * How many games were lost.
+         */
+        private int lost;
+        /**
+         * How many players could not finish because of an error.
+         */
+        private int errors;
+
+        /**
+         * @param nanos how long a command took to be answered
+         */
+        private void record(long nanos) {
+            if (count == latencies.length)
+                latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+        }
+
+        /**
+         * Adds the results of another player to these.
+         * @param other the other results
+         */
+        private void merge(Result other) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            solved += other.solved;
+            lost += other.lost;
+            errors += other.errors;
+        }
+
+        /**
+         * @param fraction a fraction 0 - 1
+         * @return the latency (in microseconds) which that fraction of commands were answered within
+         */
+        private long percentile(double fraction) {
+            if (count == 0)
+                return 0;
+
+            Arrays.sort(latencies, 0, count);
+            return latencies[(int) Math.min(count - 1, Math.ceil(fraction * count) - 1)] / 1000;
+        }
+
+        /**
+         * @return how many commands were sent
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return how many games were solved
+         */
+        public int getSolved() {
+            return solved;
+        }
+
+        /**
+         * @return how many games were lost
+         */
+        public int getLost() {
+            return lost;
+        }
+
+        /**
+         * @return how many players could not finish because of an error
+         */
+        public int getErrors() {
+            return errors;
+        }
+    }
+
+    /**
+     * Runs many players at once and waits for all of them to finish.
+     * @param players how many players to simulate at once
+     * @param games how many games each player plays
+     * @param seed the seed of the random number generator the players' guesses are made with
+     * @return the merged results of every player
+     * @throws IllegalArgumentException if players or games is less than 1
+     * @throws InterruptedException if the thread is interrupted while waiting for the players
+     */
+    public Result run(int players, int games, long seed) throws IllegalArgumentException, InterruptedException {
+        if (players < 1 || games < 1)
+            throw new IllegalArgumentException("Players and games must be positive");
+
+        SplittableRandom seeds = new SplittableRandom(seed);
+        ExecutorService threads = Executors.newFixedThreadPool(players);
+        Future<?>[] futures = new Future<?>[players];
+        Result[] results = new Result[players];
+
+        for (int i = 0; i < players; i++) {
+            Result result = new Result();
+            SplittableRandom random = seeds.split();
+            results[i] = result;
+            futures[i] = threads.submit(() -> play(games, random, result));
+        }
+
+        Result total = new Result();
+        try {
+            for (int i = 0; i < players; i++) {
+                futures[i].get();
+                total.merge(results[i]);
+            }
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException(ee.getCause());
+        } finally {
+            threads.shutdownNow();
+        }
+
+        return total;
+    }
+
+    /**
+     * Plays games as one player.
+     * @param games how many games to play
+     * @param random the random number generator the guesses are made with
+     * @param result where the results of the player go
+     */
+    private void play(int games, SplittableRandom random, Result result) {
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                     StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            socket.setTcpNoDelay(true);
+
+            for (int game = 0; game < games; game++)
+                playGame(in, out, random, result);
+
+            send(in, out, "QUIT", result);
+        } catch (IOException | IllegalStateException e) {
+            result.errors++;
+        }
+    }
+
+    /**
+     * Plays one game until it is solved or lost.
+     * @param in the replies from the server
+     * @param out where the commands go
+     * @param random the random number generator the guesses are made with
+     * @param result where the results of the player go
+     * @throws IOException if the connection fails
+     * @throws IllegalStateException if the server replies with something unexpected
+     */
+    private void playGame(BufferedReader in, Writer out, SplittableRandom random, Result result)
+            throws IOException, IllegalStateException {
+        String reply = send(in, out, "NEW " + difficulty.name(), result);
+        if (!reply.startsWith("BOARD "))
+            throw new IllegalStateException("Unexpected reply " + reply);
+
+        SudokuBoard board = BoardCodec.fromLine(reply.substring("BOARD ".length()));
+        SudokuBoard solution = SolverEngine.PROPAGATION.solve(board);
+        if (solution == null)
+            throw new IllegalStateException("Server sent an unsolvable board");
+
+        // Guess the empty cells in a random order
+        int[] empty = new int[BoardCodec.LINE_LENGTH];
+        int emptyCount = 0;
+        for (int i = 0; i < empty.length; i++) {
+            if (board.getCell(i) == 0)
+                empty[emptyCount++] = i;
+        }
+        for (int i = emptyCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = empty[i];
+            empty[i] = empty[j];
+            empty[j] = temp;
+        }
+
+        for (int i = 0; i < emptyCount; i++) {
+            int cell = empty[i];
+            int number = solution.getCell(cell);
+            // Sometimes guess wrong on purpose, using any other number
+            if (random.nextDouble() < WRONG_GUESS_CHANCE)
+                number = (number + random.nextInt(8)) % 9 + 1;
+
+            reply = send(in, out, "GUESS " + (cell / 9 + 1) + " " + (cell % 9 + 1) + " " + number, result);
+
+            if (reply.startsWith("SOLVED")) {
+                result.solved++;
+                return;
+            } else if (reply.startsWith("LOST")) {
+                result.lost++;
+                return;
+            } else if (reply.startsWith("INCORRECT")) {
+                i--; // Try the cell again
+            } else if (!reply.equals("CORRECT")) {
+                throw new IllegalStateException("Unexpected reply " + reply);
+            }
+        }
+    }
+
+    /**
+     * Sends a command and waits for its reply, timing it.
+     * @param in the replies from the server
+     * @param out where the commands go
+     * @param command the command
+     * @param result where the time goes
+     * @return the reply
+     * @throws IOException if the connection fails or is closed
+     */
+    private static String send(BufferedReader in, Writer out, String command, Result result) throws IOException {
+        long start = System.nanoTime();
+        out.write(command);
+        out.write('\n');
+        out.flush();
+
+        String reply = in.readLine();
+        if (reply == null)
+            throw new IOException("Server closed the connection");
+
+        result.record(System.nanoTime() - start);
+        return reply;
+    }
+
+    /**
+     * Runs a load test from the command line.
+     * @param args optionally the host (defaults to localhost), the port (defaults to
+     *             {@value GameServer#DEFAULT_PORT}), how many players (defaults to 100), how many games each (defaults
+     *             to 10), and the difficulty (defaults to EASY)
+     */
+    public static void main(String[] args) {
+        try {
+            String host = args.length > 0 ? args[0] : "localhost";
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+            int players = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+            int games = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+            Difficulty difficulty = args.length > 4 ? Difficulty.valueOf(args[4].toUpperCase(Locale.ROOT)) : Difficulty.EASY;
+
+            LoadTestClient client = new LoadTestClient(host, port, difficulty);
+            long start = System.currentTimeMillis();
+            Result result = client.run(players, games, System.nanoTime());
+            long millis = Math.max(1, System.currentTimeMillis() - start);
+
+            System.out.printf("%d players, %d games solved, %d lost, %d players failed in %s\n", players,
+                    result.getSolved(), result.getLost(), result.getErrors(), CommandLineUI.millisToClock(millis));
+            System.out.printf("%d commands (%.0f per second), latency p50 %dus, p99 %dus, max %dus\n",
+                    result.getCount(), result.getCount() * 1000.0 / millis, result.percentile(0.5),
+                    result.percentile(0.99), result.percentile(1));
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Usage: LoadTestClient [host] [port] [players] [games] [difficulty]");
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
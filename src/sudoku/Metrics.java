@@ -0,0 +1,47 @@
+package sudoku;
+
+/**
+ * Holds the {@link MetricsListener} the solvers and generators report to. There is no listener unless one is set, and
+ * then the only cost of the metrics is a null check per search, puzzle, or phase, so the reporting can stay in the
+ * code for good.
+ * <p>
+ * Setting the system property {@value #METRICS_PROPERTY} to true installs {@link SudokuMetrics} (and shows it over JMX)
+ * without changing any code.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class Metrics {
+    /**
+     * The system property which turns on {@link SudokuMetrics}.
+     */
+    public static final String METRICS_PROPERTY = "sudoku.metrics";
+
+    /**
+     * The listener everything is reported to (null if no one is listening).
+     */
+    private static volatile MetricsListener listener;
+
+    static {
+        if (Boolean.getBoolean(METRICS_PROPERTY))
+            SudokuMetrics.install();
+    }
+
+    /**
+     * This class only has static methods, so it should not be constructed.
+     */
+    private Metrics() {}
+
+    /**
+     * @return the listener everything is reported to, or null if no one is listening
+     */
+    public static MetricsListener listener() {
+        return listener;
+    }
+
+    /**
+     * @param listener the listener to report everything to (null to stop reporting)
+     */
+    public static void setListener(MetricsListener listener) {
+        Metrics.listener = listener;
+    }
+}
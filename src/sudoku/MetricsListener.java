@@ -0,0 +1,74 @@
+package sudoku;
+
+/**
+ * Hears about the work done by the solvers and generators, for seeing what they are doing in production. A listener
+ * is installed with {@link Metrics#setListener(MetricsListener)}; {@link SudokuMetrics} is a listener which totals
+ * everything and shows it over JMX.
+ * <p>
+ * Listeners are told once per search, puzzle, or phase (never once per step of a search), and can be called from many
+ * threads at once, so they must be thread safe and should return quickly. Every method does nothing by default.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public interface MetricsListener {
+    /**
+     * The parts of making a puzzle that are timed.
+     */
+    enum Phase {
+        /**
+         * Filling an empty board (see {@link SudokuBoard#generateBoard()}).
+         */
+        FILL,
+        /**
+         * Removing numbers from a filled board while keeping the solution unique (see
+         * {@link SudokuBoard#generatePuzzle(int)}).
+         */
+        REMOVE,
+        /**
+         * Grading a puzzle to see if it is at the difficulty asked for (see {@link DifficultyGrader}).
+         */
+        GRADE,
+        /**
+         * Shuffling the rows, columns, and numbers of a new puzzle (see {@link BoardTransform}).
+         */
+        TRANSFORM
+    }
+
+    /**
+     * Called when a search finishes (whether or not it found a solution).
+     * @param engine the engine which searched
+     * @param nodes how many times a number was tried in a cell
+     * @param backtracks how many times the search hit a dead end and had to go back
+     * @param maxDepth the most guesses the search had made at once
+     */
+    default void searchFinished(SolverEngine engine, long nodes, long backtracks, int maxDepth) {}
+
+    /**
+     * Called when numbers have been removed from a filled board to make a puzzle (or removing them failed).
+     * @param checks how many removals were checked for keeping the solution unique (one search each)
+     * @param rejected how many of those removals had to be put back
+     */
+    default void removalFinished(int checks, int rejected) {}
+
+    /**
+     * Called when a puzzle at a difficulty has been made.
+     * @param difficulty the difficulty of the puzzle
+     * @param attempts how many puzzles were generated to get one at the difficulty (so attempts - 1 were retries)
+     */
+    default void puzzleFinished(Difficulty difficulty, int attempts) {}
+
+    /**
+     * Called when {@link MinimalPuzzleGenerator} finishes looking for a puzzle (whether or not it found one).
+     * @param numbersLeft the amount of numbers asked for
+     * @param attempts how many passes over the board were made
+     * @param found if a puzzle with numbersLeft numbers was found
+     */
+    default void minimalSearchFinished(int numbersLeft, int attempts, boolean found) {}
+
+    /**
+     * Called when a phase of making a puzzle finishes.
+     * @param phase the phase
+     * @param nanos how long the phase took
+     */
+    default void phaseFinished(Phase phase, long nanos) {}
+}
@@ -0,0 +1,378 @@
+package sudoku;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A generator for puzzles with very few numbers left, which the {@link BacktrackingGenerator} almost never reaches: it
+ * makes one pass over the cells, and once a pass has left every number it cannot remove (a minimal puzzle), it gives
+ * up. On a 9x9 board this generator reaches 21 numbers in a few dozen attempts and 20 in a few hundred. 17 - 19 take
+ * many more, and most full boards have no puzzle that small at all, so asking for them usually needs many boards.
+ * <p>
+ * This generator makes the same kind of pass, but when the pass ends above the amount of numbers asked for, it puts a
+ * few of the removed numbers back and makes another pass over every number on the board in a new order. Putting
+ * numbers back often lets more numbers than that be removed, so the puzzle walks from one minimal puzzle to the next,
+ * keeping each new one if it has no more numbers than the last. If many passes in a row do not beat the fewest numbers
+ * found so far, the walk is stuck, so it restarts from the full board. Each pass is an attempt, and the generator gives
+ * up after its most attempts (the amount of attempts each puzzle took is reported to the {@link MetricsListener}).
+ * <p>
+ * Numbers are removed one at a time by default, which reaches the fewest numbers. Removing them in symmetric pairs
+ * (a cell and its reflection across the main diagonal) makes nicer looking puzzles, but needs more attempts.
+ * <p>
+ * A generator may be used by many threads at once.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class MinimalPuzzleGenerator implements PuzzleGenerator {
+    /**
+     * The name of the generator.
+     */
+    public static final String NAME = "MINIMAL";
+    /**
+     * The most attempts the generator makes by default.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 2000;
+    /**
+     * How many removals are put back between passes.
+     */
+    private static final int PERTURBATION = 3;
+    /**
+     * How many passes in a row can fail to beat the fewest numbers found before restarting from the full board.
+     */
+    private static final int RESTART_AFTER = 300;
+
+    /**
+     * If numbers are removed in symmetric pairs rather than one at a time.
+     */
+    private final boolean symmetric;
+    /**
+     * The most passes made before giving up.
+     */
+    private final int maxAttempts;
+
+    /**
+     * Constructs a generator which removes numbers one at a time and makes at most {@value #DEFAULT_MAX_ATTEMPTS}
+     * attempts.
+     */
+    public MinimalPuzzleGenerator() {
+        this(false, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Constructs a generator.
+     * @param symmetric if numbers should be removed in symmetric pairs rather than one at a time
+     * @param maxAttempts the most passes to make before giving up
+     * @throws IllegalArgumentException if maxAttempts is less than 1
+     */
+    public MinimalPuzzleGenerator(boolean symmetric, int maxAttempts) throws IllegalArgumentException {
+        if (maxAttempts < 1)
+            throw new IllegalArgumentException("Max attempts must be positive");
+
+        this.symmetric = symmetric;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * @return the name of the generator
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @param boxSize the box size of the board (3 for a standard 9x9 board)
+     * @param random the random number generator to generate with
+     * @return a new full, valid board
+     * @throws IllegalArgumentException if boxSize is not between SudokuBoard.MIN_BOX_SIZE and SudokuBoard.MAX_BOX_SIZE
+     */
+    @Override
+    public SudokuBoard generateBoard(int boxSize, RandomGenerator random) throws IllegalArgumentException {
+        SudokuBoard board = new SudokuBoard(boxSize);
+        board.generateBoard(random);
+        return board;
+    }
+
+    /**
+     * @param solution a full, valid board (it is not changed)
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param random the random number generator to generate with
+     * @return a puzzle made from the solution with numbersLeft numbers and a single solution
+     * @throws IllegalArgumentException if no puzzle with numbersLeft numbers was found within the most attempts
+     */
+    @Override
+    public SudokuBoard generatePuzzle(SudokuBoard solution, int numbersLeft, RandomGenerator random)
+            throws IllegalArgumentException {
+        SearchResult<SudokuBoard> result = generatePuzzle(solution, numbersLeft, random, Budget.UNLIMITED);
+        if (!result.isFound())
+            throw new IllegalArgumentException("No puzzle with " + numbersLeft + " numbers left was found in " +
+                    maxAttempts + " attempts");
+
+        return result.getValue();
+    }
+
+    /**
+     * @param solution a full, valid board (it is not changed)
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param random the random number generator to generate with
+     * @param budget the budget of the generation (shared by every attempt)
+     * @return the puzzle if it was FOUND, NOT_FOUND if no puzzle with numbersLeft numbers was found within the most
+     * attempts, or why the budget ran out
+     * @throws IllegalStateException if the solution is not full or invalid
+     * @throws IllegalArgumentException if numbersLeft is not less than the amount of cells
+     */
+    @Override
+    public SearchResult<SudokuBoard> generatePuzzle(SudokuBoard solution, int numbersLeft, RandomGenerator random,
+                                                    Budget budget) throws IllegalStateException,
+            IllegalArgumentException {
+        if (!solution.isFull())
+            throw new IllegalStateException("Board has not been generated");
+        else if (!solution.isValid())
+            throw new IllegalStateException("Board is invalid");
+
+        int size = solution.getSize();
+        int cellCount = size * size;
+        if (numbersLeft >= cellCount)
+            throw new IllegalArgumentException("Numbers left must be less than " + cellCount);
+
+        MetricsListener listener = Metrics.listener();
+        long start = listener == null ? 0 : System.nanoTime();
+
+        Walk walk = new Walk(solution, numbersLeft, random, budget);
+        SearchResult.Status status = SearchResult.Status.NOT_FOUND;
+        int attempts = 0;
+        int sinceBest = 0;
+        int best = cellCount;
+
+        while (attempts < maxAttempts) {
+            attempts++;
+            status = walk.pass();
+            if (status != SearchResult.Status.NOT_FOUND)
+                break;
+
+            if (walk.numLeft < best) {
+                best = walk.numLeft;
+                sinceBest = 0;
+            } else if (++sinceBest == RESTART_AFTER) {
+                // The walk is stuck around the puzzles it has found, so start again from the full board
+                walk.restart();
+                sinceBest = 0;
+                continue;
+            }
+
+            walk.perturb();
+        }
+
+        if (listener != null) {
+            listener.removalFinished(walk.checks, walk.rejected);
+            listener.phaseFinished(MetricsListener.Phase.REMOVE, System.nanoTime() - start);
+            listener.minimalSearchFinished(numbersLeft, attempts, status == SearchResult.Status.FOUND);
+        }
+
+        return new SearchResult<>(status, status == SearchResult.Status.FOUND ? walk.puzzle : null);
+    }
+
+    /**
+     * The walk from one minimal puzzle to the next. Cells are grouped into units which are removed and put back
+     * together (one cell each, or a cell and its reflection when removing symmetrically), so the puzzle is always
+     * made of whole units.
+     */
+    private class Walk {
+        /**
+         * The solution the puzzles are made from.
+         */
+        private final SudokuBoard solution;
+        /**
+         * The amount of numbers we want left on the board.
+         */
+        private final int numbersLeft;
+        /**
+         * The random number generator to pick the units with.
+         */
+        private final RandomGenerator random;
+        /**
+         * The budget of every check.
+         */
+        private final Budget budget;
+        /**
+         * The solver the checks are made with.
+         */
+        private final DancingLinksSolver solver;
+
+        /**
+         * The cell indices of each unit (units which are one cell have -1 as their second cell).
+         */
+        private final int[] first;
+        private final int[] second;
+        /**
+         * The order the units are tried in (only the first filledCount are on the board, the rest are removed).
+         */
+        private final int[] order;
+        /**
+         * How many units are on the board.
+         */
+        private int filledCount;
+
+        /**
+         * The puzzle being walked.
+         */
+        private SudokuBoard puzzle;
+        /**
+         * How many numbers are on the puzzle.
+         */
+        private int numLeft;
+        /**
+         * The last minimal puzzle kept (the one to go back to if a pass ends with more numbers), with its amount of
+         * numbers, order, and amount of units on the board.
+         */
+        private SudokuBoard kept;
+        private int keptNumLeft;
+        private int[] keptOrder;
+        private int keptFilledCount;
+
+        /**
+         * How many removals were checked, and how many of them were put back.
+         */
+        private int checks;
+        private int rejected;
+
+        /**
+         * Starts a walk from the full board.
+         * @param solution the solution the puzzles are made from
+         * @param numbersLeft the amount of numbers we want left on the board
+         * @param random the random number generator to pick the units with
+         * @param budget the budget of every check
+         */
+        private Walk(SudokuBoard solution, int numbersLeft, RandomGenerator random, Budget budget) {
+            this.solution = solution;
+            this.numbersLeft = numbersLeft;
+            this.random = random;
+            this.budget = budget;
+            solver = DancingLinksSolver.forCurrentThread(solution.getBoxSize());
+
+            int size = solution.getSize();
+            int units = symmetric ? size * (size + 1) / 2 : size * size;
+            first = new int[units];
+            second = new int[units];
+            order = new int[units];
+
+            int unit = 0;
+            for (int row = 0; row < size; row++) {
+                for (int col = symmetric ? row : 0; col < size; col++) {
+                    first[unit] = row * size + col;
+                    second[unit] = symmetric && row != col ? col * size + row : -1;
+                    order[unit] = unit;
+                    unit++;
+                }
+            }
+
+            keptOrder = new int[units];
+            restart();
+        }
+
+        /**
+         * Goes back to the full board.
+         */
+        private void restart() {
+            puzzle = new SudokuBoard(solution);
+            numLeft = solution.getSize() * solution.getSize();
+            filledCount = order.length;
+            keep();
+        }
+
+        /**
+         * Remembers the current puzzle as the one to go back to.
+         */
+        private void keep() {
+            kept = new SudokuBoard(puzzle);
+            keptNumLeft = numLeft;
+            keptFilledCount = filledCount;
+            System.arraycopy(order, 0, keptOrder, 0, order.length);
+        }
+
+        /**
+         * Tries to remove every unit on the board once, in a random order.
+         * @return FOUND if the puzzle reached numbersLeft numbers, NOT_FOUND if it did not (so it is now minimal), or
+         * why the budget ran out
+         */
+        private SearchResult.Status pass() {
+            shuffle(filledCount);
+
+            // Units are taken off the end of the filled part of the order, so removed units join the removed part
+            int end = filledCount;
+            for (int i = end - 1; i >= 0; i--) {
+                int unit = order[i];
+                int unitSize = second[unit] < 0 ? 1 : 2;
+                // If removing the unit would go past the amount asked for, it has to stay
+                if (numLeft - unitSize < numbersLeft)
+                    continue;
+
+                puzzle.setCell(first[unit], 0);
+                if (second[unit] >= 0)
+                    puzzle.setCell(second[unit], 0);
+
+                checks++;
+                SearchResult<Integer> count = solver.countSolutions(puzzle, 2, budget);
+                if (!count.isFound())
+                    return count.getStatus();
+
+                if (count.getValue() > 1) {
+                    puzzle.setCell(first[unit], solution.getCell(first[unit]));
+                    if (second[unit] >= 0)
+                        puzzle.setCell(second[unit], solution.getCell(second[unit]));
+                    rejected++;
+                } else {
+                    numLeft -= unitSize;
+                    order[i] = order[--filledCount];
+                    order[filledCount] = unit;
+                }
+
+                if (numLeft == numbersLeft)
+                    return SearchResult.Status.FOUND;
+            }
+
+            // The puzzle is now minimal, so keep it if it is no worse than the last one, or go back to the last one
+            if (numLeft <= keptNumLeft) {
+                keep();
+            } else {
+                puzzle = new SudokuBoard(kept);
+                numLeft = keptNumLeft;
+                filledCount = keptFilledCount;
+                System.arraycopy(keptOrder, 0, order, 0, order.length);
+            }
+
+            return SearchResult.Status.NOT_FOUND;
+        }
+
+        /**
+         * Puts a few random removed units back on the board.
+         */
+        private void perturb() {
+            for (int i = 0; i < PERTURBATION && filledCount < order.length; i++) {
+                int j = filledCount + random.nextInt(order.length - filledCount);
+                int unit = order[j];
+                order[j] = order[filledCount];
+                order[filledCount++] = unit;
+
+                puzzle.setCell(first[unit], solution.getCell(first[unit]));
+                numLeft++;
+                if (second[unit] >= 0) {
+                    puzzle.setCell(second[unit], solution.getCell(second[unit]));
+                    numLeft++;
+                }
+            }
+        }
+
+        /**
+         * Shuffles the first count units of the order.
+         * @param count how many units to shuffle
+         */
+        private void shuffle(int count) {
+            for (int i = count - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int temp = order[i];
+                order[i] = order[j];
+                order[j] = temp;
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Makes the same puzzles as the {@link BacktrackingGenerator}, but checks several cells at once on a
+ * {@link ForkJoinPool}, for when one puzzle is needed quickly. Near the end of cutting down a board most cells cannot
+ * be removed, and the sequential generator spends nearly all of its time proving that one cell at a time.
+ * <p>
+ * Cells are still tried in the order of {@link SudokuBoard#generatePuzzle(int, RandomGenerator)}, but the next few
+ * cells are each checked on their own copy of the puzzle at the same time. Removing more cells can only give a puzzle
+ * more solutions, so a cell which cannot be removed now can never be removed later, and every cell before the first
+ * one which can be removed is decided exactly as the sequential generator would decide it. The first removable cell
+ * is removed, every check to its right is cancelled (any of them which already found the cell cannot be removed are
+ * kept), and the next cells are checked against the new puzzle. So the puzzle made from a seed is the same as
+ * sequentially, on any amount of threads.
+ * <p>
+ * A generator may be used by many threads at once.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class ParallelPuzzleGenerator implements PuzzleGenerator {
+    /**
+     * The name of the generator.
+     */
+    public static final String NAME = "PARALLEL";
+
+    /**
+     * The pool the cells are checked on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a parallel generator which uses the common pool.
+     */
+    public ParallelPuzzleGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a parallel generator which uses a certain pool (as many cells are checked at once as the pool has
+     * threads).
+     * @param pool the pool to check on
+     */
+    public ParallelPuzzleGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the name of the generator
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @param boxSize the box size of the board (3 for a standard 9x9 board)
+     * @param random the random number generator to generate with
+     * @return a new full, valid board
+     * @throws IllegalArgumentException if boxSize is not between SudokuBoard.MIN_BOX_SIZE and SudokuBoard.MAX_BOX_SIZE
+     */
+    @Override
+    public SudokuBoard generateBoard(int boxSize, RandomGenerator random) throws IllegalArgumentException {
+        SudokuBoard board = new SudokuBoard(boxSize);
+        board.generateBoard(random);
+        return board;
+    }
+
+    /**
+     * @param solution a full, valid board (it is not changed)
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param random the random number generator to generate with
+     * @return the same puzzle as {@link SudokuBoard#generatePuzzle(int, RandomGenerator)}
+     * @throws IllegalArgumentException if the solution cannot be cut down to numbersLeft numbers
+     */
+    @Override
+    public SudokuBoard generatePuzzle(SudokuBoard solution, int numbersLeft, RandomGenerator random)
+            throws IllegalArgumentException {
+        SearchResult<SudokuBoard> result = generatePuzzle(solution, numbersLeft, random, Budget.UNLIMITED);
+        if (!result.isFound())
+            throw new IllegalArgumentException("The board must have more numbers left on the board to " +
+                    "have a unique solution");
+
+        return result.getValue();
+    }
+
+    /**
+     * @param solution a full, valid board (it is not changed)
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param random the random number generator to generate with
+     * @param budget the budget of the generation (shared by every check)
+     * @return the same puzzle as {@link SudokuBoard#generatePuzzle(int, RandomGenerator)} if it was FOUND, NOT_FOUND
+     * if the solution cannot be cut down to numbersLeft numbers, or why the budget ran out
+     * @throws IllegalStateException if the solution is not full or invalid
+     * @throws IllegalArgumentException if numbersLeft is not less than the amount of cells
+     */
+    @Override
+    public SearchResult<SudokuBoard> generatePuzzle(SudokuBoard solution, int numbersLeft, RandomGenerator random,
+                                                    Budget budget) throws IllegalStateException,
+            IllegalArgumentException {
+        int[] lineToRemove = solution.removalLine(random);
+        int lineLength = lineToRemove.length;
+        if (numbersLeft >= lineLength)
+            throw new IllegalArgumentException("Numbers left must be less than " + lineLength);
+
+        MetricsListener listener = Metrics.listener();
+        long start = listener == null ? 0 : System.nanoTime();
+        int checks = 0;
+
+        SudokuBoard puzzleBoard = new SudokuBoard(solution);
+        int boxSize = solution.getBoxSize();
+
+        // The cells of the line which are known to be needed for a unique solution
+        boolean[] needed = new boolean[lineLength];
+        int rejected = 0;
+
+        int numLeft = lineLength;
+        int next = 0;
+        int width = pool.getParallelism();
+
+        // Positions in the line of the cells being checked, and what each check found
+        int[] batch = new int[width];
+        SearchResult.Status[] statuses = new SearchResult.Status[width];
+        int[] counts = new int[width];
+        CancellationToken[] tokens = new CancellationToken[width];
+
+        while (numLeft > numbersLeft) {
+            // The next cells which have not been decided yet
+            int batchSize = 0;
+            for (int i = next; i < lineLength && batchSize < width; i++) {
+                if (!needed[i])
+                    batch[batchSize++] = i;
+            }
+
+            if (batchSize == 0) {
+                if (listener != null)
+                    reportRemoval(listener, start, checks, rejected);
+                return new SearchResult<>(SearchResult.Status.NOT_FOUND, null);
+            }
+
+            int size = batchSize;
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int slot = i;
+                tokens[slot] = new CancellationToken();
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    SudokuBoard removed = new SudokuBoard(puzzleBoard);
+                    removed.setCell(lineToRemove[batch[slot]], 0);
+
+                    SearchResult<Integer> count = DancingLinksSolver.forCurrentThread(boxSize)
+                            .countSolutions(removed, 2, new Budget(budget, tokens[slot]));
+                    statuses[slot] = count.getStatus();
+                    counts[slot] = count.isFound() ? count.getValue() : 0;
+
+                    // If the cell can be removed, the checks after it were made against the wrong puzzle
+                    if (count.isFound() && count.getValue() == 1) {
+                        for (int j = slot + 1; j < size; j++)
+                            tokens[j].cancel();
+                    }
+                }));
+            }
+            invokeAll(tasks);
+            checks += size;
+
+            // Go through the checks in line order, up to the first cell which can be removed
+            int removedAt = -1;
+            for (int i = 0; i < size; i++) {
+                // Any check after a removal which was stopped was cancelled because of the removal, but any check
+                // before one was stopped by the caller's budget, so there is no way of knowing if the cell can be
+                // removed
+                if (statuses[i] != SearchResult.Status.FOUND) {
+                    if (removedAt >= 0)
+                        continue;
+
+                    if (listener != null)
+                        reportRemoval(listener, start, checks, rejected);
+                    return new SearchResult<>(statuses[i], null);
+                }
+
+                if (counts[i] > 1) {
+                    needed[batch[i]] = true;
+                    rejected++;
+                } else if (removedAt < 0) {
+                    removedAt = batch[i];
+                }
+            }
+
+            if (removedAt >= 0) {
+                puzzleBoard.setCell(lineToRemove[removedAt], 0);
+                numLeft--;
+                next = removedAt + 1;
+            } else {
+                next = batch[size - 1] + 1;
+            }
+        }
+
+        if (listener != null)
+            reportRemoval(listener, start, checks, rejected);
+
+        return new SearchResult<>(SearchResult.Status.FOUND, puzzleBoard);
+    }
+
+    /**
+     * Runs every task on the pool and waits for them all to finish.
+     * @param tasks the tasks to run
+     */
+    private void invokeAll(List<ForkJoinTask<?>> tasks) {
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+
+    /**
+     * Tells a metrics listener about removing numbers from a board.
+     * @param listener the listener
+     * @param start when removing started (from System.nanoTime())
+     * @param checks how many checks were made (including ones made against a puzzle which then changed)
+     * @param rejected how many cells were found to be needed
+     */
+    private static void reportRemoval(MetricsListener listener, long start, int checks, int rejected) {
+        listener.removalFinished(checks, rejected);
+        listener.phaseFinished(MetricsListener.Phase.REMOVE, System.nanoTime() - start);
+    }
+}
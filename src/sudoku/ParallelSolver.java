@@ -0,0 +1,272 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Solves a single board on many cores at once, for the hardest puzzles where one core takes too long. The search
+ * tree of {@link SudokuBoard#solved()} is split at a shallow depth: the first few cells of its path are filled in every
+ * way that fits, and each of those partly filled boards (a subtree) is searched as its own task on a
+ * {@link ForkJoinPool}, so idle threads steal whatever subtrees are left.
+ * <p>
+ * The subtrees are numbered in the order the sequential search would visit them, and the solution of the leftmost
+ * subtree that has one wins, so the solution is always the same one solved() finds. Once a subtree finds a solution,
+ * every subtree to its right is cancelled (the ones to its left keep going, since one of them may still have a
+ * solution which comes first). When counting solutions, every subtree is cancelled as soon as the limit is reached.
+ * <p>
+ * A solver may be used by many threads at once.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class ParallelSolver implements Solver {
+    /**
+     * The name of the solver.
+     */
+    public static final String NAME = "PARALLEL";
+    /**
+     * How many subtrees to split the search into for each thread of the pool (more than one each, so threads which
+     * finish small subtrees early have something to steal).
+     */
+    private static final int SUBTREES_PER_THREAD = 8;
+    /**
+     * The deepest the search is split at (keeps boards with many forced cells from being split forever).
+     */
+    private static final int MAX_SPLIT_DEPTH = 16;
+
+    /**
+     * The pool the subtrees are searched on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a parallel solver which uses the common pool.
+     */
+    public ParallelSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a parallel solver which uses a certain pool.
+     * @param pool the pool to search on
+     */
+    public ParallelSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the name of the solver
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @param board the board we want to solve (it is not changed)
+     * @return the same solution as {@link SudokuBoard#solved()}. Null if the board cannot be solved
+     */
+    @Override
+    public SudokuBoard solve(SudokuBoard board) {
+        return solve(board, Budget.UNLIMITED).getValue();
+    }
+
+    /**
+     * @param board the board we want to solve (it is not changed)
+     * @param budget the budget of the search (shared by every subtree)
+     * @return the same solution as {@link SudokuBoard#solved()} if it was FOUND, NOT_FOUND if the board cannot be
+     * solved, or why the budget ran out
+     */
+    @Override
+    public SearchResult<SudokuBoard> solve(SudokuBoard board, Budget budget) {
+        SearchResult.Status stopped = budget.check();
+        if (stopped != null)
+            return new SearchResult<>(stopped, null);
+        else if (!board.isValid())
+            return new SearchResult<>(SearchResult.Status.NOT_FOUND, null);
+
+        Split split = new Split(board);
+        int count = split.subtrees.size();
+
+        SudokuBoard[] solutions = new SudokuBoard[count];
+        SearchResult.Status[] statuses = new SearchResult.Status[count];
+        CancellationToken[] tokens = new CancellationToken[count];
+        for (int i = 0; i < count; i++)
+            tokens[i] = new CancellationToken();
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks.add(ForkJoinTask.adapt(() -> {
+                SudokuBoard subtree = split.subtrees.get(index);
+                SolverContext context = SolverContext.forCurrentThread(board.getBoxSize());
+
+                statuses[index] = context.solve(subtree, split.rest, split.rest.length,
+                        new Budget(budget, tokens[index]));
+                if (statuses[index] == SearchResult.Status.FOUND) {
+                    solutions[index] = new SudokuBoard(subtree);
+                    context.copySolutionTo(solutions[index]);
+
+                    // Nothing to the right can come first anymore
+                    for (int j = index + 1; j < count; j++)
+                        tokens[j].cancel();
+                }
+            }));
+        }
+        invokeAll(tasks);
+
+        // The leftmost subtree with a solution wins. Any subtree before it finished on its own, so if one of those was
+        // stopped, it was the caller's budget that stopped it
+        for (int i = 0; i < count; i++) {
+            if (solutions[i] != null)
+                return new SearchResult<>(SearchResult.Status.FOUND, solutions[i]);
+            else if (statuses[i] != SearchResult.Status.NOT_FOUND)
+                return new SearchResult<>(statuses[i], null);
+        }
+
+        return new SearchResult<>(SearchResult.Status.NOT_FOUND, null);
+    }
+
+    /**
+     * Counts the solutions of a board, stopping once the limit is reached.
+     * @param board the board we want to count the solutions of
+     * @param limit the most solutions we care about (2 is enough to tell if a solution is unique)
+     * @return the amount of solutions the board has, or limit if it has at least that many (0 if the board is invalid)
+     * @throws IllegalArgumentException if limit is less than 1
+     */
+    public int countSolutions(SudokuBoard board, int limit) throws IllegalArgumentException {
+        SearchResult<Integer> result = countSolutions(board, limit, Budget.UNLIMITED);
+        return result.isFound() ? result.getValue() : 0;
+    }
+
+    /**
+     * Counts the solutions of a board, stopping once the limit is reached or the budget runs out.
+     * @param board the board we want to count the solutions of
+     * @param limit the most solutions we care about (2 is enough to tell if a solution is unique)
+     * @param budget the budget of the search (shared by every subtree)
+     * @return the amount of solutions (at most limit) if there are any, NOT_FOUND if there are none, or why the budget
+     * ran out
+     * @throws IllegalArgumentException if limit is less than 1
+     */
+    public SearchResult<Integer> countSolutions(SudokuBoard board, int limit, Budget budget)
+            throws IllegalArgumentException {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be positive");
+
+        SearchResult.Status stopped = budget.check();
+        if (stopped != null)
+            return new SearchResult<>(stopped, null);
+        else if (!board.isValid())
+            return new SearchResult<>(SearchResult.Status.NOT_FOUND, null);
+
+        Split split = new Split(board);
+        int count = split.subtrees.size();
+
+        AtomicInteger total = new AtomicInteger();
+        SearchResult.Status[] statuses = new SearchResult.Status[count];
+        CancellationToken reached = new CancellationToken();
+        Budget subtreeBudget = new Budget(budget, reached);
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks.add(ForkJoinTask.adapt(() -> {
+                SudokuBoard subtree = split.subtrees.get(index);
+                SearchResult<Integer> result = DancingLinksSolver.forCurrentThread(board.getBoxSize())
+                        .countSolutions(subtree, limit, subtreeBudget);
+
+                statuses[index] = result.getStatus();
+                // Once the limit is reached, the rest of the subtrees don't matter
+                if (result.isFound() && total.addAndGet(result.getValue()) >= limit)
+                    reached.cancel();
+            }));
+        }
+        invokeAll(tasks);
+
+        if (total.get() >= limit)
+            return new SearchResult<>(SearchResult.Status.FOUND, limit);
+
+        // The limit was not reached, so if a subtree was stopped, it was the caller's budget that stopped it
+        for (SearchResult.Status status : statuses) {
+            if (status != SearchResult.Status.FOUND && status != SearchResult.Status.NOT_FOUND)
+                return new SearchResult<>(status, null);
+        }
+
+        return total.get() == 0 ? new SearchResult<>(SearchResult.Status.NOT_FOUND, null)
+                : new SearchResult<>(SearchResult.Status.FOUND, total.get());
+    }
+
+    /**
+     * Runs every task on the pool and waits for them all to finish.
+     * @param tasks the tasks to run
+     */
+    private void invokeAll(List<ForkJoinTask<?>> tasks) {
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+
+    /**
+     * A board split into subtrees along the path of {@link SudokuBoard#solved()}.
+     */
+    private class Split {
+        /**
+         * The board with the first cells of the path filled in every way that fits, in the order the sequential
+         * search would try them.
+         */
+        private final List<SudokuBoard> subtrees;
+        /**
+         * The cells of the path left to fill in each subtree, in order.
+         */
+        private final int[] rest;
+
+        /**
+         * Splits a board, filling the cells of the path one at a time until there are enough subtrees for the pool.
+         * @param board the board to split (it must be valid)
+         */
+        private Split(SudokuBoard board) {
+            int size = board.getSize();
+
+            // The same path as solved(): the empty cells in reverse row by row order
+            int[] path = new int[size * size];
+            int pathLength = 0;
+            for (int cell = size * size - 1; cell >= 0; cell--) {
+                if (board.getCell(cell) == 0)
+                    path[pathLength++] = cell;
+            }
+
+            List<SudokuBoard> level = new ArrayList<>();
+            level.add(new SudokuBoard(board));
+
+            int depth = 0;
+            int target = pool.getParallelism() * SUBTREES_PER_THREAD;
+            while (level.size() < target && depth < pathLength && depth < MAX_SPLIT_DEPTH && !level.isEmpty()) {
+                int cell = path[depth];
+                List<SudokuBoard> next = new ArrayList<>();
+
+                // Each board of the level is split into one board for each number which fits the cell, smallest first
+                for (SudokuBoard subtree : level) {
+                    int candidates = subtree.getCandidates(cell / size, cell % size);
+                    for (; candidates != 0; candidates &= candidates - 1) {
+                        SudokuBoard child = new SudokuBoard(subtree);
+                        child.setCell(cell, Integer.numberOfTrailingZeros(candidates));
+                        next.add(child);
+                    }
+                }
+
+                level = next;
+                depth++;
+            }
+
+            subtrees = level;
+            rest = new int[pathLength - depth];
+            System.arraycopy(path, depth, rest, 0, rest.length);
+        }
+    }
+}
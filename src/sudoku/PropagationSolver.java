@@ -0,0 +1,448 @@
+package sudoku;
+
+/**
+ * Solves sudoku boards by making logical deductions before guessing. Each cell keeps a set of candidates (the numbers
+ * not yet used in its row, column, or box), and the solver repeatedly fills in
+ * <ul>
+ *     <li>naked singles: cells with only one candidate left, and</li>
+ *     <li>hidden singles: numbers that only fit in one cell of a row, column, or box.</li>
+ * </ul>
+ * Only when no more deductions can be made does it guess, and it guesses on the cell with the fewest candidates left.
+ * Most puzzles are solved without guessing at all. Each solver works on boards of one box size.
+ * <p>
+ * The state of each level of the search is saved in arrays allocated up front, so a solver can be reused for any
+ * number of boards, but it should not be shared between threads.
+ * @see SolverEngine
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class PropagationSolver {
+    /**
+     * Each thread keeps its own solver around for each box size so the saved state arrays are only allocated once
+     * (indexed by box size, and only allocated once it is needed).
+     */
+    private static final ThreadLocal<PropagationSolver[]> THREAD_SOLVERS =
+            ThreadLocal.withInitial(() -> new PropagationSolver[SudokuBoard.MAX_BOX_SIZE + 1]);
+
+    /**
+     * The width and height of each box of the boards this solver works on.
+     */
+    private final int boxSize;
+    /**
+     * The width and height of the boards this solver works on.
+     */
+    private final int size;
+    /**
+     * The amount of cells on the boards this solver works on.
+     */
+    private final int cellCount;
+    /**
+     * A mask with the bits of the numbers 1 - size set.
+     */
+    private final int allNumbers;
+
+    /**
+     * The cells of each unit: rows first, then columns, then boxes (so rows 0-8, columns 9-17, and boxes 18-26 on a
+     * standard board).
+     */
+    private final int[][] units;
+    /**
+     * The box each cell is in.
+     */
+    private final int[] boxOf;
+
+    /**
+     * The numbers in each cell (0 if empty).
+     */
+    private final int[] cells;
+    /**
+     * The numbers used in each row, column, and box.
+     */
+    private final int[] rowMasks;
+    private final int[] colMasks;
+    private final int[] boxMasks;
+
+    /**
+     * The state saved before each guess so it can be restored when the guess is wrong. There can be at most one guess
+     * per cell.
+     */
+    private final int[][] savedCells;
+    private final int[][] savedMasks;
+
+    /**
+     * The first solution found.
+     */
+    private final int[] firstSolution;
+    /**
+     * How many solutions have been found in the current search.
+     */
+    private int solutionCount;
+    /**
+     * The budget of the current search.
+     */
+    private Budget budget;
+    /**
+     * Why the current search stopped early (null if the budget has not run out).
+     */
+    private SearchResult.Status stopped;
+
+    /**
+     * How many guesses the current search has tried (for the metrics).
+     */
+    private long nodes;
+    /**
+     * How many contradictions the current search has hit (for the metrics).
+     */
+    private long backtracks;
+    /**
+     * The most guesses the current search has made at once (for the metrics).
+     */
+    private int maxDepth;
+
+    /**
+     * Constructs a solver for standard 9x9 boards.
+     */
+    public PropagationSolver() {
+        this(3);
+    }
+
+    /**
+     * Constructs a solver for boards with a certain box size.
+     * @param boxSize the width and height of each box of the boards to solve
+     * @throws IllegalArgumentException if boxSize is not between SudokuBoard.MIN_BOX_SIZE and SudokuBoard.MAX_BOX_SIZE
+     */
+    public PropagationSolver(int boxSize) throws IllegalArgumentException {
+        if (boxSize < SudokuBoard.MIN_BOX_SIZE || boxSize > SudokuBoard.MAX_BOX_SIZE)
+            throw new IllegalArgumentException("Box size must be between " + SudokuBoard.MIN_BOX_SIZE + " and "
+                    + SudokuBoard.MAX_BOX_SIZE);
+
+        this.boxSize = boxSize;
+        size = boxSize * boxSize;
+        cellCount = size * size;
+        allNumbers = (1 << (size + 1)) - 2;
+
+        units = new int[size * 3][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                units[i][j] = i * size + j;
+                units[size + i][j] = j * size + i;
+                units[size * 2 + i][j] = (i / boxSize * boxSize + j / boxSize) * size + i % boxSize * boxSize
+                        + j % boxSize;
+            }
+        }
+
+        boxOf = new int[cellCount];
+        for (int cell = 0; cell < cellCount; cell++)
+            boxOf[cell] = cell / size / boxSize * boxSize + cell % size / boxSize;
+
+        cells = new int[cellCount];
+        rowMasks = new int[size];
+        colMasks = new int[size];
+        boxMasks = new int[size];
+
+        savedCells = new int[cellCount][cellCount];
+        savedMasks = new int[cellCount][size * 3];
+
+        firstSolution = new int[cellCount];
+    }
+
+    /**
+     * @return the solver for standard 9x9 boards belonging to the current thread
+     */
+    public static PropagationSolver forCurrentThread() {
+        return forCurrentThread(3);
+    }
+
+    /**
+     * @param boxSize the box size of the boards to solve
+     * @return the solver for boards with the box size belonging to the current thread
+     * @throws IllegalArgumentException if boxSize is not between SudokuBoard.MIN_BOX_SIZE and SudokuBoard.MAX_BOX_SIZE
+     */
+    public static PropagationSolver forCurrentThread(int boxSize) throws IllegalArgumentException {
+        if (boxSize < SudokuBoard.MIN_BOX_SIZE || boxSize > SudokuBoard.MAX_BOX_SIZE)
+            throw new IllegalArgumentException("Box size must be between " + SudokuBoard.MIN_BOX_SIZE + " and "
+                    + SudokuBoard.MAX_BOX_SIZE);
+
+        PropagationSolver[] solvers = THREAD_SOLVERS.get();
+        if (solvers[boxSize] == null)
+            solvers[boxSize] = new PropagationSolver(boxSize);
+
+        return solvers[boxSize];
+    }
+
+    /**
+     * Solves a board.
+     * @param board the board we want to solve
+     * @return the solved board (if possible). Null if the board cannot be solved
+     * @throws IllegalArgumentException if the board has a different box size than the solver
+     */
+    public SudokuBoard solve(SudokuBoard board) throws IllegalArgumentException {
+        if (search(board, 1, Budget.UNLIMITED) == 0)
+            return null;
+
+        return firstSolution(board);
+    }
+
+    /**
+     * Solves a board, stopping early if the budget runs out.
+     * @param board the board we want to solve
+     * @param budget the budget of the search
+     * @return the solved board if it was FOUND, NOT_FOUND if the board cannot be solved, or why the budget ran out
+     * @throws IllegalArgumentException if the board has a different box size than the solver
+     */
+    public SearchResult<SudokuBoard> solve(SudokuBoard board, Budget budget) throws IllegalArgumentException {
+        int found = search(board, 1, budget);
+        if (stopped != null)
+            return new SearchResult<>(stopped, null);
+        else if (found == 0)
+            return new SearchResult<>(SearchResult.Status.NOT_FOUND, null);
+
+        return new SearchResult<>(SearchResult.Status.FOUND, firstSolution(board));
+    }
+
+    /**
+     * @param board the board that was searched
+     * @return a copy of the board with the first solution found filled in
+     */
+    private SudokuBoard firstSolution(SudokuBoard board) {
+        SudokuBoard solution = new SudokuBoard(board);
+        for (int i = 0; i < cellCount; i++)
+            solution.setCell(i, firstSolution[i]);
+
+        return solution;
+    }
+
+    /**
+     * Counts the solutions of a board, stopping once the limit is reached.
+     * @param board the board we want to count the solutions of
+     * @param limit the most solutions we care about (2 is enough to tell if a solution is unique)
+     * @return the amount of solutions the board has, or limit if it has at least that many
+     * @throws IllegalArgumentException if limit is less than 1, or if the board has a different box size than the
+     * solver
+     */
+    public int countSolutions(SudokuBoard board, int limit) throws IllegalArgumentException {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be positive");
+
+        return search(board, limit, Budget.UNLIMITED);
+    }
+
+    /**
+     * Loads the board into the solver and searches it.
+     * @param board the board we want to search the solutions of
+     * @param limit the amount of solutions after which we stop searching
+     * @param budget the budget of the search (if it runs out, stopped says why)
+     * @return the amount of solutions found (at most limit)
+     * @throws IllegalArgumentException if the board has a different box size than the solver
+     */
+    private int search(SudokuBoard board, int limit, Budget budget) throws IllegalArgumentException {
+        if (board.getBoxSize() != boxSize)
+            throw new IllegalArgumentException("Solver is for boards with box size " + boxSize);
+
+        this.budget = budget;
+        stopped = budget.check();
+        if (stopped != null || !board.isValid())
+            return 0;
+
+        solutionCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            rowMasks[i] = 0;
+            colMasks[i] = 0;
+            boxMasks[i] = 0;
+        }
+
+        for (int cell = 0; cell < cellCount; cell++) {
+            cells[cell] = 0;
+
+            int cellNum = board.getCell(cell);
+            if (cellNum != 0)
+                place(cell, cellNum);
+        }
+
+        nodes = 0;
+        backtracks = 0;
+        maxDepth = 0;
+        search(0, limit);
+        budget.charge(nodes & (Budget.CHECK_INTERVAL - 1));
+
+        MetricsListener listener = Metrics.listener();
+        if (listener != null)
+            listener.searchFinished(SolverEngine.PROPAGATION, nodes, backtracks, maxDepth);
+
+        return solutionCount;
+    }
+
+    /**
+     * Makes every deduction it can and then guesses on the cell with the fewest candidates.
+     * @param depth how many guesses have been made so far
+     * @param limit the amount of solutions after which we stop searching
+     * @return if the search should stop (the limit has been reached)
+     */
+    private boolean search(int depth, int limit) {
+        if (!propagate()) {
+            backtracks++;
+            return false;
+        }
+
+        // Find the empty cell with the fewest candidates
+        int bestCell = -1;
+        int bestCount = size + 1;
+        for (int cell = 0; cell < cellCount && bestCount > 2; cell++) {
+            if (cells[cell] == 0) {
+                int count = Integer.bitCount(candidates(cell));
+                if (count < bestCount) {
+                    bestCell = cell;
+                    bestCount = count;
+                }
+            }
+        }
+
+        // If there are no empty cells, we have a solution
+        if (bestCell == -1) {
+            if (solutionCount++ == 0)
+                System.arraycopy(cells, 0, firstSolution, 0, cellCount);
+
+            return solutionCount >= limit;
+        }
+
+        // Try each candidate of the cell, restoring the board after each one
+        save(depth);
+        for (int remaining = candidates(bestCell); remaining != 0; remaining &= remaining - 1) {
+            place(bestCell, Integer.numberOfTrailingZeros(remaining));
+            if (depth + 1 > maxDepth)
+                maxDepth = depth + 1;
+
+            // Every so often, see if the budget has run out
+            if ((++nodes & (Budget.CHECK_INTERVAL - 1)) == 0) {
+                budget.charge(Budget.CHECK_INTERVAL);
+                stopped = budget.check();
+                if (stopped != null)
+                    return true;
+            }
+
+            if (search(depth + 1, limit))
+                return true;
+
+            restore(depth);
+        }
+
+        return false;
+    }
+
+    /**
+     * Fills in naked and hidden singles until there are none left.
+     * @return false if a contradiction was found (some cell or number has no place left)
+     */
+    private boolean propagate() {
+        boolean changed = true;
+
+        while (changed) {
+            changed = false;
+
+            // Naked singles: cells with only one candidate
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (cells[cell] == 0) {
+                    int candidates = candidates(cell);
+                    if (candidates == 0)
+                        return false;
+
+                    if ((candidates & (candidates - 1)) == 0) {
+                        place(cell, Integer.numberOfTrailingZeros(candidates));
+                        changed = true;
+                    }
+                }
+            }
+
+            // Hidden singles: numbers that only fit in one cell of a unit
+            for (int unit = 0; unit < units.length; unit++) {
+                int[] unitCells = units[unit];
+
+                // Find which numbers are candidates in at least one cell, and which are in at least two
+                int once = 0;
+                int twice = 0;
+                for (int cell : unitCells) {
+                    if (cells[cell] == 0) {
+                        int candidates = candidates(cell);
+                        twice |= once & candidates;
+                        once |= candidates;
+                    }
+                }
+
+                int used = unitMask(unit);
+                // If some number is neither used nor has a place left, this is a dead end
+                if ((once | used) != allNumbers)
+                    return false;
+
+                for (int hidden = once & ~twice & ~used; hidden != 0; hidden &= hidden - 1) {
+                    int number = Integer.numberOfTrailingZeros(hidden);
+
+                    for (int cell : unitCells) {
+                        if (cells[cell] == 0 && (candidates(cell) & (1 << number)) != 0) {
+                            place(cell, number);
+                            changed = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @param cell the index of the cell
+     * @return a mask of the numbers that can go in the cell
+     */
+    private int candidates(int cell) {
+        return ~(rowMasks[cell / size] | colMasks[cell % size] | boxMasks[boxOf[cell]]) & allNumbers;
+    }
+
+    /**
+     * @param unit the index of a row, column, or box (in the same order as units)
+     * @return a mask of the numbers used in the unit
+     */
+    private int unitMask(int unit) {
+        if (unit < size)
+            return rowMasks[unit];
+        else if (unit < size * 2)
+            return colMasks[unit - size];
+        else
+            return boxMasks[unit - size * 2];
+    }
+
+    /**
+     * Puts a number in an empty cell.
+     * @param cell the index of the cell
+     * @param number the number to put there
+     */
+    private void place(int cell, int number) {
+        cells[cell] = number;
+        rowMasks[cell / size] |= 1 << number;
+        colMasks[cell % size] |= 1 << number;
+        boxMasks[boxOf[cell]] |= 1 << number;
+    }
+
+    /**
+     * Saves the board before making a guess.
+     * @param depth the level of the search to save
+     */
+    private void save(int depth) {
+        System.arraycopy(cells, 0, savedCells[depth], 0, cellCount);
+        System.arraycopy(rowMasks, 0, savedMasks[depth], 0, size);
+        System.arraycopy(colMasks, 0, savedMasks[depth], size, size);
+        System.arraycopy(boxMasks, 0, savedMasks[depth], size * 2, size);
+    }
+
+    /**
+     * Restores the board to how it was saved.
+     * @param depth the level of the search to restore
+     */
+    private void restore(int depth) {
+        System.arraycopy(savedCells[depth], 0, cells, 0, cellCount);
+        System.arraycopy(savedMasks[depth], 0, rowMasks, 0, size);
+        System.arraycopy(savedMasks[depth], size, colMasks, 0, size);
+        System.arraycopy(savedMasks[depth], size * 2, boxMasks, 0, size);
+    }
+}
@@ -0,0 +1,287 @@
+package sudoku;
+
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Generates many sudoku puzzles at once by spreading the work over a ForkJoinPool. Generating a puzzle can fail when
+ * the board cannot be cut down to the amount of numbers wanted (see {@link SudokuBoard#generatePuzzle(int)}), so
+ * failed attempts are retried inside the generator until each puzzle is made. Finished puzzles are handed to a
+ * consumer as soon as they are ready, so a batch of any size can be streamed somewhere else without being held in
+ * memory.
+ * <p>
+ * A batch can be given a seed, in which case each puzzle of the batch is made from seeds drawn from a generator
+ * seeded by a hash of the batch seed and the puzzle's index (so batches with nearby seeds share no puzzles). This
+ * makes the whole batch reproducible no matter which threads make which puzzles, and each puzzle can also be made again
+ * on its own from {@link SudokuPuzzle#getSeed()}.
+ * <p>
+ * A generator can also be given a {@link PuzzleIndex}, in which case puzzles that are already in the index (up to
+ * symmetry) are thrown away and retried like failed attempts, so a bank built through one index has no duplicates.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class PuzzleBatchGenerator implements AutoCloseable {
+    /**
+     * How many puzzles a single task generates before it stops splitting into smaller tasks.
+     */
+    private static final int PUZZLES_PER_TASK = 8;
+    /**
+     * The fewest numbers a 9x9 puzzle with a single solution can have.
+     */
+    public static final int MIN_NUMBERS_LEFT = 17;
+    /**
+     * How many attempts a single puzzle gets before the batch gives up on it.
+     */
+    public static final int MAX_ATTEMPTS_PER_PUZZLE = 1000;
+
+    /**
+     * The pool the puzzles are generated on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Where progress reports are printed (null if they should not be printed).
+     */
+    private PrintStream progressStream;
+    /**
+     * How often progress reports are printed.
+     */
+    private long progressIntervalMillis;
+
+    /**
+     * The index puzzles must be new to (null if duplicates are allowed).
+     */
+    private PuzzleIndex index;
+
+    /**
+     * Constructs a generator which uses every available core.
+     */
+    public PuzzleBatchGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a generator which uses a certain amount of threads.
+     * @param parallelism the amount of puzzles to generate at the same time
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public PuzzleBatchGenerator(int parallelism) throws IllegalArgumentException {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be positive");
+
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Makes the generator print how many puzzles it has made and how fast it is making them while it runs.
+     * @param progressStream where to print the reports (null to stop printing them)
+     * @param intervalMillis how many milliseconds to wait between reports
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public void setProgressStream(PrintStream progressStream, long intervalMillis) throws IllegalArgumentException {
+        if (intervalMillis <= 0)
+            throw new IllegalArgumentException("Interval must be positive");
+
+        this.progressStream = progressStream;
+        this.progressIntervalMillis = intervalMillis;
+    }
+
+    /**
+     * Makes the generator only accept puzzles that are not already in an index, adding each accepted puzzle to it.
+     * @param index the index to check puzzles against (null to allow duplicates)
+     */
+    public void setIndex(PuzzleIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Generates a batch of puzzles, each with a single solution. This blocks until every puzzle has been handed to the
+     * consumer. The consumer is called from the worker threads, but never from two at the same time.
+     * @param count the amount of puzzles to generate
+     * @param numbersLeft the amount of numbers we want left on each board
+     * @param consumer what to do with each puzzle once it is made
+     * @return the amount of attempts it took to make all the puzzles (including the ones that succeeded)
+     * @throws IllegalArgumentException if count is negative, or if numbersLeft is not {@value #MIN_NUMBERS_LEFT} - 80
+     * @throws IllegalStateException if a puzzle could not be made in {@value #MAX_ATTEMPTS_PER_PUZZLE} attempts
+     */
+    public long generate(int count, int numbersLeft, Consumer<SudokuPuzzle> consumer)
+            throws IllegalArgumentException, IllegalStateException {
+        return generate(count, numbersLeft, ThreadLocalRandom.current().nextLong(), consumer);
+    }
+
+    /**
+     * Generates a reproducible batch of puzzles, each with a single solution. The same seed, count, and numbers left
+     * will always make the same puzzles, although the consumer may get them in a different order. This blocks until
+     * every puzzle has been handed to the consumer. The consumer is called from the worker threads, but never from two
+     * at the same time.
+     * @param count the amount of puzzles to generate
+     * @param numbersLeft the amount of numbers we want left on each board
+     * @param seed the seed of the batch
+     * @param consumer what to do with each puzzle once it is made
+     * @return the amount of attempts it took to make all the puzzles (including the ones that succeeded)
+     * @throws IllegalArgumentException if count is negative, or if numbersLeft is not {@value #MIN_NUMBERS_LEFT} - 80
+     * @throws IllegalStateException if a puzzle could not be made in {@value #MAX_ATTEMPTS_PER_PUZZLE} attempts
+     */
+    public long generate(int count, int numbersLeft, long seed, Consumer<SudokuPuzzle> consumer)
+            throws IllegalArgumentException, IllegalStateException {
+        if (count < 0)
+            throw new IllegalArgumentException("Count must be non-negative");
+        else if (numbersLeft < MIN_NUMBERS_LEFT || numbersLeft >= 81)
+            throw new IllegalArgumentException("Numbers left must be " + MIN_NUMBERS_LEFT + " - 80");
+
+        AtomicLong made = new AtomicLong();
+        AtomicLong attempts = new AtomicLong();
+        CancellationToken failed = new CancellationToken();
+        long start = System.nanoTime();
+
+        ScheduledExecutorService reporter = null;
+        if (progressStream != null) {
+            reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "puzzle-batch-progress");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(() -> report(made.get(), count, attempts.get(), start),
+                    progressIntervalMillis, progressIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            pool.invoke(new GenerateTask(0, count, numbersLeft, seed, consumer, made, attempts, failed));
+        } finally {
+            if (reporter != null) {
+                reporter.shutdownNow();
+                report(made.get(), count, attempts.get(), start);
+            }
+        }
+
+        return attempts.get();
+    }
+
+    /**
+     * Hashes a batch seed and the index of a puzzle in the batch into the seed of the puzzle's generator. Both go
+     * through a 64-bit mixer (the finalizer of SplitMix64), so puzzle i of batch s never shares a generator with
+     * puzzle i - 1 of batch s + 1 the way adding the index to the seed would.
+     * @param seed the seed of the batch
+     * @param index the index of the puzzle in the batch
+     * @return the seed of the puzzle's generator
+     */
+    static long puzzleSeed(long seed, int index) {
+        return mix(mix(seed) + index * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * @param z a value
+     * @return the value with its bits mixed so that every bit of the result depends on every bit of z
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Prints a progress report.
+     * @param made how many puzzles have been made so far
+     * @param count how many puzzles are being made in total
+     * @param attempts how many attempts have been made so far
+     * @param start when the batch started (from System.nanoTime())
+     */
+    private void report(long made, int count, long attempts, long start) {
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        double perSecond = elapsedMillis == 0 ? 0 : made * 1000.0 / elapsedMillis;
+
+        progressStream.printf("%d/%d puzzles (%d attempts) in %s, %.1f puzzles/s\n", made, count, attempts,
+                CommandLineUI.millisToClock(elapsedMillis), perSecond);
+    }
+
+    /**
+     * Shuts down the threads of the generator.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * A task which generates the puzzles from one index up to (not including) another, splitting itself in half until
+     * the range is small enough.
+     */
+    private class GenerateTask extends RecursiveAction {
+        /**
+         * Tasks are never serialized, but RecursiveAction is Serializable.
+         */
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int numbersLeft;
+        private final long seed;
+        private final Consumer<SudokuPuzzle> consumer;
+        private final AtomicLong made;
+        private final AtomicLong attempts;
+        /**
+         * Cancelled once a puzzle of the batch has failed, so the tasks still queued stop instead of running on after
+         * the batch has already thrown.
+         */
+        private final CancellationToken failed;
+
+        private GenerateTask(int from, int to, int numbersLeft, long seed, Consumer<SudokuPuzzle> consumer,
+                             AtomicLong made, AtomicLong attempts, CancellationToken failed) {
+            this.from = from;
+            this.to = to;
+            this.numbersLeft = numbersLeft;
+            this.seed = seed;
+            this.consumer = consumer;
+            this.made = made;
+            this.attempts = attempts;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (failed.isCancelled())
+                return;
+
+            if (to - from > PUZZLES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GenerateTask(from, middle, numbersLeft, seed, consumer, made, attempts, failed),
+                        new GenerateTask(middle, to, numbersLeft, seed, consumer, made, attempts, failed));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                SudokuPuzzle puzzle;
+                // Each attempt at puzzle i gets the next seed of a generator only puzzle i uses
+                SplittableRandom seeds = new SplittableRandom(puzzleSeed(seed, i));
+
+                // Some boards cannot be cut down far enough (and some puzzles are duplicates), so keep trying until
+                // one works, or until it is clear none will
+                int tries = 0;
+                while (true) {
+                    if (failed.isCancelled())
+                        return;
+                    else if (tries++ == MAX_ATTEMPTS_PER_PUZZLE) {
+                        failed.cancel();
+                        throw new IllegalStateException("No puzzle with " + numbersLeft + " numbers left was made in "
+                                + MAX_ATTEMPTS_PER_PUZZLE + " attempts");
+                    }
+
+                    attempts.incrementAndGet();
+                    try {
+                        puzzle = new SudokuPuzzle(numbersLeft, seeds.nextLong());
+                        if (index == null || index.add(puzzle.getPuzzle()))
+                            break;
+                    } catch (IllegalArgumentException ignored) {}
+                }
+
+                synchronized (consumer) {
+                    consumer.accept(puzzle);
+                }
+                made.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package sudoku;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * An algorithm which generates full sudoku boards and cuts them down into puzzles with a single solution. Generators
+ * are looked up by name through {@link Engines}, so a different generator can be plugged in (by configuration, or by a
+ * jar providing one through {@link java.util.ServiceLoader}) without changing the code that uses it. The built in
+ * generators are the {@link BacktrackingGenerator} and the {@link ParallelPuzzleGenerator}, which makes the same
+ * puzzles on many cores.
+ * <p>
+ * A generator may be used by many threads at once, so implementations must be thread-safe. Generators should only
+ * take randomness from the generator they are given, so that puzzles made from a seed can be made again.
+ * @see Engines
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public interface PuzzleGenerator {
+    /**
+     * @return the name the generator is looked up by (names are not case sensitive)
+     */
+    String getName();
+
+    /**
+     * @param boxSize the box size of the board (3 for a standard 9x9 board)
+     * @param random the random number generator to generate with
+     * @return a new full, valid board
+     * @throws IllegalArgumentException if the generator does not support the box size
+     */
+    SudokuBoard generateBoard(int boxSize, RandomGenerator random) throws IllegalArgumentException;
+
+    /**
+     * @param solution a full, valid board (it is not changed)
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param random the random number generator to generate with
+     * @return a puzzle made from the solution with numbersLeft numbers and a single solution
+     * @throws IllegalArgumentException if the solution cannot be cut down to numbersLeft numbers
+     */
+    SudokuBoard generatePuzzle(SudokuBoard solution, int numbersLeft, RandomGenerator random)
+            throws IllegalArgumentException;
+
+    /**
+     * Cuts a board down into a puzzle, stopping early if the budget runs out. Generators which cannot be stopped part
+     * way through only look at the budget before they start.
+     * @param solution a full, valid board (it is not changed)
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param random the random number generator to generate with
+     * @param budget the budget of the generation
+     * @return the puzzle if it was FOUND, NOT_FOUND if the solution cannot be cut down to numbersLeft numbers, or why
+     * the budget ran out
+     * @throws IllegalArgumentException if numbersLeft is not less than the amount of cells
+     */
+    default SearchResult<SudokuBoard> generatePuzzle(SudokuBoard solution, int numbersLeft, RandomGenerator random,
+                                                     Budget budget) throws IllegalArgumentException {
+        SearchResult.Status stopped = budget.check();
+        if (stopped != null)
+            return new SearchResult<>(stopped, null);
+
+        return new SearchResult<>(SearchResult.Status.FOUND, generatePuzzle(solution, numbersLeft, random));
+    }
+}
@@ -0,0 +1,179 @@
+package sudoku;
+
+/**
+ * A set of puzzles which treats puzzles that are the same up to symmetry as the same puzzle, used to keep duplicates
+ * out of generated puzzle banks. Each puzzle is stored by its canonical form (see {@link Canonicalizer}) packed into
+ * 4 bits per cell, so a puzzle takes 48 bytes in a flat long array with no object per entry. Puzzles are compared by
+ * their whole canonical form, so there are no false positives.
+ * <p>
+ * The index is safe to share between threads. Canonicalizing is done outside the lock, so threads only wait on each
+ * other for the table lookup itself.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class PuzzleIndex {
+    /**
+     * The amount of longs each puzzle takes (81 cells * 4 bits = 324 bits, rounded up to 6 longs).
+     */
+    private static final int WORDS = 6;
+    /**
+     * A bit in the last word of each slot that is set when the slot is in use (the cells only use the first 4 bits of
+     * the last word).
+     */
+    private static final long IN_USE = 1L << 63;
+
+    /**
+     * The open addressing table, WORDS longs per slot.
+     */
+    private long[] table;
+    /**
+     * How many puzzles are in the index.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty index.
+     */
+    public PuzzleIndex() {
+        this(1024);
+    }
+
+    /**
+     * Constructs an empty index with room for a certain amount of puzzles before it has to grow.
+     * @param expectedSize the amount of puzzles the index is expected to hold
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public PuzzleIndex(int expectedSize) throws IllegalArgumentException {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Expected size must be non-negative");
+
+        // Keep the table at most half full
+        int slots = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        table = new long[slots * WORDS];
+    }
+
+    /**
+     * Adds a puzzle to the index if it (or a symmetric version of it) is not already there.
+     * @param puzzle the puzzle to add
+     * @return true if the puzzle was added, or false if it was already in the index
+     * @throws IllegalArgumentException if the puzzle is not 9x9
+     */
+    public boolean add(SudokuBoard puzzle) throws IllegalArgumentException {
+        long[] key = pack(Canonicalizer.forCurrentThread().canonicalCells(puzzle));
+
+        synchronized (this) {
+            int slot = find(table, key);
+            if (isInUse(table, slot))
+                return false;
+
+            System.arraycopy(key, 0, table, slot * WORDS, WORDS);
+            size++;
+
+            if (size * 2 > table.length / WORDS)
+                grow();
+
+            return true;
+        }
+    }
+
+    /**
+     * @param puzzle the puzzle to look for
+     * @return if the puzzle (or a symmetric version of it) is in the index
+     * @throws IllegalArgumentException if the puzzle is not 9x9
+     */
+    public boolean contains(SudokuBoard puzzle) throws IllegalArgumentException {
+        long[] key = pack(Canonicalizer.forCurrentThread().canonicalCells(puzzle));
+
+        synchronized (this) {
+            return isInUse(table, find(table, key));
+        }
+    }
+
+    /**
+     * @return how many puzzles are in the index
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the size of the table, moving every puzzle into the new table.
+     */
+    private void grow() {
+        long[] oldTable = table;
+        table = new long[oldTable.length * 2];
+
+        long[] key = new long[WORDS];
+        for (int slot = 0; slot < oldTable.length / WORDS; slot++) {
+            if (isInUse(oldTable, slot)) {
+                System.arraycopy(oldTable, slot * WORDS, key, 0, WORDS);
+                System.arraycopy(key, 0, table, find(table, key) * WORDS, WORDS);
+            }
+        }
+    }
+
+    /**
+     * Finds the slot holding a key, or the empty slot it would go in (using linear probing).
+     * @param table the table to search
+     * @param key the packed key
+     * @return the index of the slot
+     */
+    private static int find(long[] table, long[] key) {
+        int mask = table.length / WORDS - 1;
+        int slot = hash(key) & mask;
+
+        while (isInUse(table, slot) && !matches(table, slot, key))
+            slot = (slot + 1) & mask;
+
+        return slot;
+    }
+
+    /**
+     * @param table the table
+     * @param slot the index of the slot
+     * @return if the slot holds a puzzle
+     */
+    private static boolean isInUse(long[] table, int slot) {
+        return (table[slot * WORDS + WORDS - 1] & IN_USE) != 0;
+    }
+
+    /**
+     * @param table the table
+     * @param slot the index of the slot
+     * @param key the packed key
+     * @return if the slot holds the key
+     */
+    private static boolean matches(long[] table, int slot, long[] key) {
+        for (int i = 0; i < WORDS; i++) {
+            if (table[slot * WORDS + i] != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param key the packed key
+     * @return a well mixed hash of the key
+     */
+    private static int hash(long[] key) {
+        long hash = 0;
+        for (long word : key) {
+            hash = (hash ^ word) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 32;
+        }
+        return (int) hash;
+    }
+
+    /**
+     * @param cells the 81 cells of a canonical form
+     * @return the cells packed 16 to a long, with the in use bit set
+     */
+    private static long[] pack(int[] cells) {
+        long[] key = new long[WORDS];
+        for (int i = 0; i < 81; i++)
+            key[i / 16] |= (long) cells[i] << (i % 16 * 4);
+
+        key[WORDS - 1] |= IN_USE;
+        return key;
+    }
+}
@@ -0,0 +1,274 @@
+package sudoku;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A pool of puzzles generated ahead of time for each {@link Difficulty}, so a game can start without waiting for a
+ * puzzle to be generated. Background workers keep each difficulty stocked: once a difficulty drops below the low
+ * watermark, workers generate puzzles until it is back up to the high watermark. Taking a puzzle is O(1) as long as
+ * the pool has one, and only generates a puzzle on the spot when the difficulty has run out.
+ * <p>
+ * A pool can be backed by a file. The puzzles in the file are loaded when the pool is constructed and the puzzles left
+ * in the pool are saved back to it when the pool is closed, so starting up again does not have to generate anything.
+ * Each puzzle is saved as its difficulty followed by the puzzle and solution in the packed format of
+ * {@link BoardCodec}.
+ * <p>
+ * A pool is safe to share between threads.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class PuzzlePool implements AutoCloseable {
+    /**
+     * How many bytes each puzzle takes in the file (its difficulty, its puzzle, and its solution).
+     */
+    private static final int RECORD_BYTES = 1 + 2 * BoardCodec.PACKED_BYTES;
+    /**
+     * Where puzzles which could not be generated are reported.
+     */
+    private static final System.Logger LOGGER = System.getLogger(PuzzlePool.class.getName());
+
+    /**
+     * The puzzles ready to be taken at each difficulty.
+     */
+    private final Map<Difficulty, ArrayDeque<SudokuPuzzle>> puzzles;
+    /**
+     * How many puzzles of each difficulty the workers have been asked to make but have not finished yet.
+     */
+    private final Map<Difficulty, Integer> pending;
+    /**
+     * The workers which generate puzzles in the background.
+     */
+    private final ExecutorService workers;
+    /**
+     * Cancelled when the pool is closed, stopping the puzzles still being generated.
+     */
+    private final CancellationToken closing = new CancellationToken();
+    /**
+     * The budget every puzzle is generated with (unlimited, but stopped by closing).
+     */
+    private final Budget budget = new Budget(Long.MAX_VALUE, Long.MAX_VALUE, closing);
+
+    /**
+     * Once a difficulty has fewer puzzles than this, it is refilled.
+     */
+    private final int lowWatermark;
+    /**
+     * How many puzzles each difficulty is refilled up to.
+     */
+    private final int highWatermark;
+    /**
+     * The file the pool is loaded from and saved to (null if it is not saved).
+     */
+    private final Path file;
+
+    /**
+     * If the pool has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Constructs a pool, loads the puzzles in its file (if it has one and the file exists), and starts filling the
+     * pool.
+     * @param lowWatermark once a difficulty has fewer puzzles than this, it is refilled
+     * @param highWatermark how many puzzles each difficulty is refilled up to
+     * @param workerCount the amount of threads generating puzzles in the background
+     * @param file the file to load the pool from and save it to when closed (null to not save the pool)
+     * @throws IllegalArgumentException if the watermarks are negative, if the high watermark is less than the low
+     * watermark, if workerCount is less than 1, or if the file is not a pool file
+     * @throws IOException if the file exists but cannot be read
+     */
+    public PuzzlePool(int lowWatermark, int highWatermark, int workerCount, Path file)
+            throws IllegalArgumentException, IOException {
+        if (lowWatermark < 0 || highWatermark < lowWatermark)
+            throw new IllegalArgumentException("Watermarks must satisfy 0 <= low <= high");
+        else if (workerCount < 1)
+            throw new IllegalArgumentException("Worker count must be positive");
+
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.file = file;
+
+        puzzles = new EnumMap<>(Difficulty.class);
+        pending = new EnumMap<>(Difficulty.class);
+        for (Difficulty difficulty : Difficulty.values()) {
+            puzzles.put(difficulty, new ArrayDeque<>());
+            pending.put(difficulty, 0);
+        }
+
+        if (file != null && Files.exists(file))
+            load(file);
+
+        // Daemon threads, so a pool that is never closed doesn't keep the program running
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "puzzle-pool-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        synchronized (this) {
+            for (Difficulty difficulty : Difficulty.values())
+                refill(difficulty);
+        }
+    }
+
+    /**
+     * Takes a puzzle out of the pool. If the pool has run out of puzzles at the difficulty, one is generated on the
+     * spot.
+     * @param difficulty the difficulty of the puzzle
+     * @return a puzzle at the difficulty
+     * @throws IllegalStateException if the pool has been closed
+     */
+    public SudokuPuzzle take(Difficulty difficulty) throws IllegalStateException {
+        SudokuPuzzle puzzle;
+
+        synchronized (this) {
+            if (closed)
+                throw new IllegalStateException("Pool is closed");
+
+            puzzle = puzzles.get(difficulty).poll();
+            if (puzzles.get(difficulty).size() < lowWatermark)
+                refill(difficulty);
+        }
+
+        // If the pool ran dry, don't hold the lock while generating
+        if (puzzle == null)
+            puzzle = new SudokuPuzzle(difficulty);
+
+        return puzzle;
+    }
+
+    /**
+     * @param difficulty a difficulty
+     * @return how many puzzles at the difficulty are ready to be taken
+     */
+    public synchronized int size(Difficulty difficulty) {
+        return puzzles.get(difficulty).size();
+    }
+
+    /**
+     * Stops the background workers and saves the puzzles left in the pool to its file (if it has one). Puzzles which
+     * were still being generated are stopped (through the budget they are generated with) and thrown away.
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed)
+                return;
+            closed = true;
+        }
+
+        closing.cancel();
+        workers.shutdownNow();
+
+        if (file != null)
+            save(file);
+    }
+
+    /**
+     * Asks the workers for enough puzzles to bring a difficulty back up to the high watermark (counting the ones
+     * already being made). Must be called while holding the lock.
+     * @param difficulty the difficulty to refill
+     */
+    private void refill(Difficulty difficulty) {
+        int missing = highWatermark - puzzles.get(difficulty).size() - pending.get(difficulty);
+
+        for (int i = 0; i < missing; i++) {
+            pending.merge(difficulty, 1, Integer::sum);
+            workers.execute(() -> make(difficulty));
+        }
+    }
+
+    /**
+     * Generates a puzzle and adds it to the pool (run by the workers). If the puzzle cannot be generated, the failure
+     * is logged and the puzzle is no longer counted as pending, so the difficulty is asked for again the next time it
+     * runs low.
+     * @param difficulty the difficulty of the puzzle
+     */
+    private void make(Difficulty difficulty) {
+        SudokuPuzzle puzzle = null;
+
+        try {
+            // The value is null if the pool was closed while the puzzle was being made
+            puzzle = SudokuPuzzle.create(difficulty, ThreadLocalRandom.current().nextLong(), budget).getValue();
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Could not generate a puzzle at " + difficulty, e);
+        } finally {
+            synchronized (this) {
+                pending.merge(difficulty, -1, Integer::sum);
+                // If the pool was closed while this puzzle was being made, it has already been saved without it
+                if (puzzle != null && !closed)
+                    puzzles.get(difficulty).offer(puzzle);
+            }
+        }
+    }
+
+    /**
+     * Adds every puzzle in a pool file to the pool.
+     * @param file the file to load
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a pool file
+     */
+    private void load(Path file) throws IOException, IllegalArgumentException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() % RECORD_BYTES != 0)
+            throw new IllegalArgumentException("File is not a puzzle pool: " + file);
+
+        Difficulty[] difficulties = Difficulty.values();
+        while (buffer.hasRemaining()) {
+            int ordinal = buffer.get();
+            if (ordinal < 0 || ordinal >= difficulties.length)
+                throw new IllegalArgumentException("File is not a puzzle pool: " + file);
+
+            SudokuBoard puzzle = BoardCodec.readPacked(buffer);
+            SudokuBoard solution = BoardCodec.readPacked(buffer);
+            puzzles.get(difficulties[ordinal]).offer(new SudokuPuzzle(puzzle, solution));
+        }
+    }
+
+    /**
+     * Writes every puzzle in the pool to a pool file. The pool is written to a temporary file first and then moved
+     * over the old one, so the old file survives if saving fails part way through.
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    private void save(Path file) throws IOException {
+        ByteBuffer buffer;
+        synchronized (this) {
+            int count = 0;
+            for (ArrayDeque<SudokuPuzzle> queue : puzzles.values())
+                count += queue.size();
+
+            buffer = ByteBuffer.allocate(count * RECORD_BYTES);
+            for (Map.Entry<Difficulty, ArrayDeque<SudokuPuzzle>> entry : puzzles.entrySet()) {
+                for (SudokuPuzzle puzzle : entry.getValue()) {
+                    buffer.put((byte) entry.getKey().ordinal());
+                    BoardCodec.writePacked(puzzle.getPuzzle(), buffer);
+                    BoardCodec.writePacked(puzzle.getSolution(), buffer);
+                }
+            }
+        }
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                out.write(buffer);
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
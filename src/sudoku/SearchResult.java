@@ -0,0 +1,83 @@
+package sudoku;
+
+/**
+ * The result of a search or generation run with a {@link Budget}: either what was found, or why nothing was.
+ * @param <T> the type of what is searched for
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public final class SearchResult<T> {
+    /**
+     * How a search ended.
+     */
+    public enum Status {
+        /**
+         * The search finished and found what it was looking for (a solution, or a puzzle).
+         */
+        FOUND,
+        /**
+         * The search finished and there is nothing to find (the board cannot be solved, or cannot be cut down to as
+         * few numbers as asked for).
+         */
+        NOT_FOUND,
+        /**
+         * The search ran out of time or nodes before it finished.
+         */
+        BUDGET_EXCEEDED,
+        /**
+         * The search was cancelled before it finished.
+         */
+        CANCELLED
+    }
+
+    /**
+     * How the search ended.
+     */
+    private final Status status;
+    /**
+     * What was found (null unless the status is FOUND).
+     */
+    private final T value;
+
+    /**
+     * @param status how the search ended
+     * @param value what was found (null unless the status is FOUND)
+     * @throws IllegalArgumentException if the value is null when the status is FOUND or is given when it is not
+     */
+    public SearchResult(Status status, T value) throws IllegalArgumentException {
+        if ((status == Status.FOUND) != (value != null))
+            throw new IllegalArgumentException("Only a FOUND result has a value");
+
+        this.status = status;
+        this.value = value;
+    }
+
+    /**
+     * @return how the search ended
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return if the search found what it was looking for
+     */
+    public boolean isFound() {
+        return status == Status.FOUND;
+    }
+
+    /**
+     * @return what was found (null unless the status is FOUND)
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return the status, followed by what was found if anything was
+     */
+    @Override
+    public String toString() {
+        return value == null ? status.toString() : status + ": " + value;
+    }
+}
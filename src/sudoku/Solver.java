@@ -0,0 +1,41 @@
+package sudoku;
+
+/**
+ * An algorithm which solves sudoku boards. Solvers are looked up by name through {@link Engines}, so a different
+ * solver can be plugged in (by configuration, or by a jar providing one through {@link java.util.ServiceLoader})
+ * without changing the code that uses it. The built in solvers are the {@link SolverEngine}s.
+ * <p>
+ * A solver may be used by many threads at once, so implementations must be thread-safe.
+ * @see Engines
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public interface Solver {
+    /**
+     * @return the name the solver is looked up by (names are not case sensitive)
+     */
+    String getName();
+
+    /**
+     * @param board the board we want to solve (it is not changed)
+     * @return the solved board (if possible). Null if the board cannot be solved
+     */
+    SudokuBoard solve(SudokuBoard board);
+
+    /**
+     * Solves a board, stopping early if the budget runs out. Solvers which cannot be stopped part way through only
+     * look at the budget before they start.
+     * @param board the board we want to solve (it is not changed)
+     * @param budget the budget of the search
+     * @return the solved board if it was FOUND, NOT_FOUND if the board cannot be solved, or why the budget ran out
+     */
+    default SearchResult<SudokuBoard> solve(SudokuBoard board, Budget budget) {
+        SearchResult.Status stopped = budget.check();
+        if (stopped != null)
+            return new SearchResult<>(stopped, null);
+
+        SudokuBoard solution = solve(board);
+        return solution == null ? new SearchResult<>(SearchResult.Status.NOT_FOUND, null)
+                : new SearchResult<>(SearchResult.Status.FOUND, solution);
+    }
+}
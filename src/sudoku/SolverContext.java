@@ -0,0 +1,299 @@
+package sudoku;
+
+/**
+ * The working state of the backtracking solver, kept around so solving does not allocate anything. The board is
+ * copied into primitive arrays (the cells and a bitmask of the numbers used in each row, column, and box), and the
+ * cells to fill are kept as a primitive stack of cell indices. Placing a number sets its bits and taking it back
+ * clears them, so backtracking restores the state exactly and one context can solve any number of boards.
+ * <p>
+ * The search is the same as the original {@link SudokuBoard#solved()}: the empty cells are filled in reverse row by
+ * row order (or in the order of a given path), trying the numbers from smallest to largest in each cell, so it finds
+ * the same solution. A context belongs to the thread that got it from {@link #forCurrentThread(int)} and should not
+ * be shared between threads.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class SolverContext {
+    /**
+     * Each thread keeps its own context for each box size (indexed by box size, and only made once it is needed).
+     */
+    private static final ThreadLocal<SolverContext[]> THREAD_CONTEXTS =
+            ThreadLocal.withInitial(() -> new SolverContext[SudokuBoard.MAX_BOX_SIZE + 1]);
+
+    /**
+     * The width and height of each box of the boards this context works on.
+     */
+    private final int boxSize;
+    /**
+     * The width and height of the boards this context works on.
+     */
+    private final int size;
+    /**
+     * A mask with the bits of the numbers 1 - size set.
+     */
+    private final int allNumbers;
+
+    /**
+     * The numbers in each cell (0 if empty).
+     */
+    private final int[] cells;
+    /**
+     * The numbers used in each row, column, and box.
+     */
+    private final int[] rowMasks;
+    private final int[] colMasks;
+    private final int[] boxMasks;
+    /**
+     * The box each cell is in.
+     */
+    private final int[] boxOf;
+
+    /**
+     * The cells to fill, in the order they are filled.
+     */
+    private final int[] path;
+    /**
+     * How many cells are on the path.
+     */
+    private int pathLength;
+    /**
+     * The budget of the current solve.
+     */
+    private Budget budget;
+
+    /**
+     * @param boxSize the width and height of each box of the boards to solve
+     */
+    private SolverContext(int boxSize) {
+        this.boxSize = boxSize;
+        size = boxSize * boxSize;
+        allNumbers = (1 << (size + 1)) - 2;
+
+        cells = new int[size * size];
+        rowMasks = new int[size];
+        colMasks = new int[size];
+        boxMasks = new int[size];
+
+        boxOf = new int[size * size];
+        for (int cell = 0; cell < boxOf.length; cell++)
+            boxOf[cell] = cell / size / boxSize * boxSize + cell % size / boxSize;
+
+        path = new int[size * size];
+    }
+
+    /**
+     * @param boxSize the box size of the boards to solve
+     * @return the context for boards with the box size belonging to the current thread
+     * @throws IllegalArgumentException if boxSize is not between SudokuBoard.MIN_BOX_SIZE and SudokuBoard.MAX_BOX_SIZE
+     */
+    public static SolverContext forCurrentThread(int boxSize) throws IllegalArgumentException {
+        if (boxSize < SudokuBoard.MIN_BOX_SIZE || boxSize > SudokuBoard.MAX_BOX_SIZE)
+            throw new IllegalArgumentException("Box size must be between " + SudokuBoard.MIN_BOX_SIZE + " and "
+                    + SudokuBoard.MAX_BOX_SIZE);
+
+        SolverContext[] contexts = THREAD_CONTEXTS.get();
+        if (contexts[boxSize] == null)
+            contexts[boxSize] = new SolverContext(boxSize);
+
+        return contexts[boxSize];
+    }
+
+    /**
+     * Loads a board into the context and solves it, filling the empty cells in reverse row by row order. The solution
+     * stays in the context until the next solve, and can be copied out with {@link #copySolutionTo(SudokuBoard)}.
+     * @param board the board we want to solve (it is not changed)
+     * @return if the board was solved (false if it has no solution or is invalid)
+     * @throws IllegalArgumentException if the board has a different box size than the context
+     */
+    public boolean solve(SudokuBoard board) throws IllegalArgumentException {
+        return solve(board, Budget.UNLIMITED) == SearchResult.Status.FOUND;
+    }
+
+    /**
+     * Loads a board into the context and solves it like {@link #solve(SudokuBoard)}, stopping early if the budget runs
+     * out. The solution can only be copied out if it was FOUND.
+     * @param board the board we want to solve (it is not changed)
+     * @param budget the budget of the solve
+     * @return FOUND if the board was solved, NOT_FOUND if it has no solution or is invalid, or why the budget ran out
+     * @throws IllegalArgumentException if the board has a different box size than the context
+     */
+    public SearchResult.Status solve(SudokuBoard board, Budget budget) throws IllegalArgumentException {
+        SearchResult.Status stopped = budget.check();
+        if (stopped != null)
+            return stopped;
+        else if (!load(board))
+            return SearchResult.Status.NOT_FOUND;
+
+        // The original solver pushed the empty cells onto a stack row by row, so it filled them from the last one back
+        pathLength = 0;
+        for (int cell = cells.length - 1; cell >= 0; cell--) {
+            if (cells[cell] == 0)
+                path[pathLength++] = cell;
+        }
+
+        this.budget = budget;
+        return search();
+    }
+
+    /**
+     * Loads a board into the context and solves it, filling the empty cells in the order of a path.
+     * @param board the board we want to solve (it is not changed)
+     * @param order the indices (row * size + col) of the cells to fill, in the order to fill them. Every empty cell of
+     *              the board must be on it, and every cell on it must be empty
+     * @param length how many cells of the order to use
+     * @return if the board was solved (false if it has no solution or is invalid)
+     * @throws IllegalArgumentException if the board has a different box size than the context
+     */
+    public boolean solve(SudokuBoard board, int[] order, int length) throws IllegalArgumentException {
+        return solve(board, order, length, Budget.UNLIMITED) == SearchResult.Status.FOUND;
+    }
+
+    /**
+     * Loads a board into the context and solves it like {@link #solve(SudokuBoard, int[], int)}, stopping early if
+     * the budget runs out. The solution can only be copied out if it was FOUND.
+     * @param board the board we want to solve (it is not changed)
+     * @param order the indices (row * size + col) of the cells to fill, in the order to fill them. Every empty cell of
+     *              the board must be on it, and every cell on it must be empty
+     * @param length how many cells of the order to use
+     * @param budget the budget of the solve
+     * @return FOUND if the board was solved, NOT_FOUND if it has no solution or is invalid, or why the budget ran out
+     * @throws IllegalArgumentException if the board has a different box size than the context
+     */
+    public SearchResult.Status solve(SudokuBoard board, int[] order, int length, Budget budget)
+            throws IllegalArgumentException {
+        SearchResult.Status stopped = budget.check();
+        if (stopped != null)
+            return stopped;
+        else if (!load(board))
+            return SearchResult.Status.NOT_FOUND;
+
+        System.arraycopy(order, 0, path, 0, length);
+        pathLength = length;
+
+        this.budget = budget;
+        return search();
+    }
+
+    /**
+     * Copies the solution found by the last solve into a board.
+     * @param board the board to copy the solution into (it must have the same box size as the context)
+     */
+    public void copySolutionTo(SudokuBoard board) {
+        for (int i = 0; i < pathLength; i++) {
+            int cell = path[i];
+            board.setCell(cell, cells[cell]);
+        }
+    }
+
+    /**
+     * Copies a board into the primitive arrays.
+     * @param board the board to load
+     * @return false if the board is invalid
+     * @throws IllegalArgumentException if the board has a different box size than the context
+     */
+    private boolean load(SudokuBoard board) throws IllegalArgumentException {
+        if (board.getBoxSize() != boxSize)
+            throw new IllegalArgumentException("Context is for boards with box size " + boxSize);
+        else if (!board.isValid())
+            return false;
+
+        for (int i = 0; i < size; i++) {
+            rowMasks[i] = 0;
+            colMasks[i] = 0;
+            boxMasks[i] = 0;
+        }
+
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = 0;
+
+            int cellNum = board.getCell(cell);
+            if (cellNum != 0)
+                place(cell, cellNum);
+        }
+
+        return true;
+    }
+
+    /**
+     * Fills the cells on the path, backtracking along it. Each cell holds the number it is currently trying, so going
+     * back to a cell carries on from the next number up.
+     * @return FOUND if every cell on the path was filled, NOT_FOUND if they cannot be, or why the budget ran out
+     */
+    private SearchResult.Status search() {
+        int position = 0;
+        SearchResult.Status status = SearchResult.Status.FOUND;
+
+        // Counted for the metrics (locals are cheap enough to count even when no one is listening)
+        long nodes = 0;
+        long backtracks = 0;
+        int maxDepth = 0;
+
+        while (position < pathLength) {
+            int cell = path[position];
+            int current = cells[cell];
+            if (current != 0)
+                remove(cell, current);
+
+            // The numbers bigger than the current one that still fit in the cell
+            int next = ~(rowMasks[cell / size] | colMasks[cell % size] | boxMasks[boxOf[cell]]) & allNumbers
+                    & -(2 << current);
+
+            if (next != 0) {
+                place(cell, Integer.numberOfTrailingZeros(next));
+                if (++position > maxDepth)
+                    maxDepth = position;
+
+                // Every so often, see if the budget has run out
+                if ((++nodes & (Budget.CHECK_INTERVAL - 1)) == 0) {
+                    budget.charge(Budget.CHECK_INTERVAL);
+                    SearchResult.Status stopped = budget.check();
+                    if (stopped != null) {
+                        status = stopped;
+                        break;
+                    }
+                }
+            } else {
+                // Nothing else fits, so go back to the previous cell (if there is one)
+                cells[cell] = 0;
+                backtracks++;
+                if (position == 0) {
+                    status = SearchResult.Status.NOT_FOUND;
+                    break;
+                }
+
+                position--;
+            }
+        }
+
+        budget.charge(nodes & (Budget.CHECK_INTERVAL - 1));
+
+        MetricsListener listener = Metrics.listener();
+        if (listener != null)
+            listener.searchFinished(SolverEngine.BACKTRACKING, nodes, backtracks, maxDepth);
+
+        return status;
+    }
+
+    /**
+     * Puts a number in an empty cell.
+     * @param cell the index of the cell
+     * @param number the number to put there
+     */
+    private void place(int cell, int number) {
+        cells[cell] = number;
+        rowMasks[cell / size] |= 1 << number;
+        colMasks[cell % size] |= 1 << number;
+        boxMasks[boxOf[cell]] |= 1 << number;
+    }
+
+    /**
+     * Takes a number back out of a cell's row, column, and box (leaving it in the cell).
+     * @param cell the index of the cell
+     * @param number the number in the cell
+     */
+    private void remove(int cell, int number) {
+        rowMasks[cell / size] &= ~(1 << number);
+        colMasks[cell % size] &= ~(1 << number);
+        boxMasks[boxOf[cell]] &= ~(1 << number);
+    }
+}
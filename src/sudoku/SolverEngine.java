@@ -0,0 +1,83 @@
+package sudoku;
+
+/**
+ * The built in algorithms a SudokuBoard can be solved with. Each engine returns the solved board or null if the board
+ * cannot be solved, so they can be swapped for each other. (Boards with more than one solution may be solved
+ * differently by different engines.)
+ * @see SudokuBoard#solved(Solver)
+ * @see Engines
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public enum SolverEngine implements Solver {
+    /**
+     * The original backtracking algorithm which tries the numbers 1-9 in each empty cell in a fixed order (too slow
+     * for boards larger than 9x9).
+     */
+    BACKTRACKING {
+        @Override
+        public SudokuBoard solve(SudokuBoard board) {
+            return board.solved();
+        }
+
+        @Override
+        public SearchResult<SudokuBoard> solve(SudokuBoard board, Budget budget) {
+            return board.solved(budget);
+        }
+    },
+
+    /**
+     * Knuth's Algorithm X using Dancing Links, which always branches on the most constrained part of the board.
+     * @see DancingLinksSolver
+     */
+    DANCING_LINKS {
+        @Override
+        public SudokuBoard solve(SudokuBoard board) {
+            return DancingLinksSolver.forCurrentThread(board.getBoxSize()).solve(board);
+        }
+
+        @Override
+        public SearchResult<SudokuBoard> solve(SudokuBoard board, Budget budget) {
+            return DancingLinksSolver.forCurrentThread(board.getBoxSize()).solve(board, budget);
+        }
+    },
+
+    /**
+     * Fills in naked and hidden singles before guessing, and guesses on the cell with the fewest candidates.
+     * @see PropagationSolver
+     */
+    PROPAGATION {
+        @Override
+        public SudokuBoard solve(SudokuBoard board) {
+            return PropagationSolver.forCurrentThread(board.getBoxSize()).solve(board);
+        }
+
+        @Override
+        public SearchResult<SudokuBoard> solve(SudokuBoard board, Budget budget) {
+            return PropagationSolver.forCurrentThread(board.getBoxSize()).solve(board, budget);
+        }
+    };
+
+    /**
+     * @return the name of the engine
+     */
+    @Override
+    public String getName() {
+        return name();
+    }
+
+    /**
+     * @param board the board we want to solve (it is not changed)
+     * @return the solved board (if possible). Null if the board cannot be solved
+     */
+    @Override
+    public abstract SudokuBoard solve(SudokuBoard board);
+
+    /**
+     * @param board the board we want to solve (it is not changed)
+     * @param budget the budget of the search
+     * @return the solved board if it was FOUND, NOT_FOUND if the board cannot be solved, or why the budget ran out
+     */
+    @Override
+    public abstract SearchResult<SudokuBoard> solve(SudokuBoard board, Budget budget);
+}
@@ -0,0 +1,1060 @@
+package sudoku;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class represents a Sudoku board (solved or unsolved, valid or invalid). This class includes all the
+ * logic that come with Sudoku boards such as seeing if the board is valid or if the board is full. The board
+ * in this class is represented with a flat byte array along with bitmasks of the numbers used in each row, column,
+ * and box. The Coordinate class is used sometimes to make setting and getting cells easier both for the user and
+ * reader.
+ * <p>
+ * Boards are the standard 9x9 unless constructed with a different box size. A board with box size n is n^2 by n^2
+ * with the numbers 1 - n^2, so box sizes 2-5 give 4x4, 9x9, 16x16, and 25x25 boards. Every number fits in a bit of an
+ * int even at 25x25, so the masks stay single ints at every size.
+ * @see Coordinate
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class SudokuBoard {
+    /**
+     * The smallest box size a board can have.
+     */
+    public static final int MIN_BOX_SIZE = 2;
+    /**
+     * The largest box size a board can have (the numbers 1-25 still fit in the bits of an int).
+     */
+    public static final int MAX_BOX_SIZE = 5;
+
+    /**
+     * The width and height of each box (3 for a standard board).
+     */
+    private int boxSize;
+    /**
+     * The width and height of the board, and the largest number (boxSize * boxSize, so 9 for a standard board).
+     */
+    private int size;
+
+    /**
+     * The cells of the board stored row by row, so the cell at (row, col) is at index row * size + col.
+     */
+    private byte[] cells;
+
+    /**
+     * For each row, a bitmask of the numbers placed in it (bit n is set if n is somewhere in the row).
+     */
+    private int[] rowMasks;
+    /**
+     * For each column, a bitmask of the numbers placed in it.
+     */
+    private int[] colMasks;
+    /**
+     * For each box (numbered left to right, top to bottom), a bitmask of the numbers placed in it.
+     */
+    private int[] boxMasks;
+
+    /**
+     * How many times each number appears in each row, indexed by row * (size + 1) + number. A mask alone cannot tell if
+     * clearing a repeated number leaves another copy behind, so these counts keep the masks exact on invalid boards.
+     */
+    private byte[] rowCounts;
+    /**
+     * How many times each number appears in each column, indexed by col * (size + 1) + number.
+     */
+    private byte[] colCounts;
+    /**
+     * How many times each number appears in each box, indexed by box * (size + 1) + number.
+     */
+    private byte[] boxCounts;
+
+    /**
+     * How many repeated numbers there are across all rows, columns, and boxes (a number appearing k times in a unit
+     * adds k - 1). The board is valid exactly when this is 0.
+     */
+    private int repeats;
+
+    /**
+     * How many cells are empty (0).
+     */
+    private int emptyCells;
+
+    /**
+     * A default constructor initializing an empty sudoku board. In practicality, this means setting each
+     * cell to be 0, which will be our indicator of an empty cell.
+     */
+    public SudokuBoard() {
+        this(3);
+    }
+
+    /**
+     * Constructs an empty sudoku board with boxes of a certain size, so the board is boxSize^2 by boxSize^2.
+     * @param boxSize the width and height of each box (3 for a standard 9x9 board)
+     * @throws IllegalArgumentException if boxSize is not between MIN_BOX_SIZE and MAX_BOX_SIZE
+     */
+    public SudokuBoard(int boxSize) throws IllegalArgumentException {
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE)
+            throw new IllegalArgumentException("Box size must be between " + MIN_BOX_SIZE + " and " + MAX_BOX_SIZE);
+
+        this.boxSize = boxSize;
+        size = boxSize * boxSize;
+
+        cells = new byte[size * size];
+
+        rowMasks = new int[size];
+        colMasks = new int[size];
+        boxMasks = new int[size];
+
+        rowCounts = new byte[size * (size + 1)];
+        colCounts = new byte[size * (size + 1)];
+        boxCounts = new byte[size * (size + 1)];
+
+        emptyCells = size * size;
+    }
+
+    /**
+     * A constructor which initializes a sudoku board from a string representation of a board. This constructor is
+     * mostly used for debugging purposes and inputting boards known to be full/empty or valid/invalid to test methods.
+     * (Note that this constructor does not take in a String of SudokuBoard.toString() format. If one wishes to make
+     * a board from another board, one should use the copy constructor.) The box size is worked out from the amount
+     * of entries in the first row, so boards of any size can be read this way.
+     * @param board a String representation of the board with columns separated with spaces and rows separated
+     *              with newlines
+     * @throws IllegalArgumentException if the board is improperly formatted
+     */
+    public SudokuBoard(String board) throws IllegalArgumentException {
+        /* Board will look like:
+
+        0 0 0 | 0 0 0 | 0 0 0
+        0 0 0 | 0 0 0 | 0 0 0
+        0 0 0 | 0 0 0 | 0 0 0
+        ---------------------
+        0 0 0 | 0 0 0 | 0 0 0
+        0 0 0 | 0 0 0 | 0 0 0
+        0 0 0 | 0 0 0 | 0 0 0
+        ---------------------
+        0 0 0 | 0 0 0 | 0 0 0
+        0 0 0 | 0 0 0 | 0 0 0
+        0 0 0 | 0 0 0 | 0 0 0
+
+         */
+        this(boxSizeOf(board));
+
+        Scanner boardScanner = new Scanner(board);
+
+        int row = 0;
+        // Each line is boxSize boxes of boxSize numbers with a separator between each box (boxSize - 1 of them), and
+        // there are the same amount of lines (so 3 + 1 + 3 + 1 + 3 = 11 for a standard board)
+        int lineLength = size + boxSize - 1;
+
+        // Go row by row
+        for (int i = 0; i < lineLength; i++) {
+            Scanner rowScanner = new Scanner(boardScanner.nextLine());
+
+            if (i % (boxSize + 1) != boxSize) { // At rows 3 and 7 (on a standard board), it should be a row of '-'s
+                // Each row will be 0 0 0 | 0 0 0 | 0 0 0
+                // We need to parse through the ints and the non ints
+
+                int col = 0;
+
+                for (int j = 0; j < lineLength; j++) {
+                    String nextString = rowScanner.next();
+
+                    if (j % (boxSize + 1) != boxSize) { // at indices 3 and 7 (on a standard board), it should be |
+                        try {
+                            setCell(row, col, Integer.parseInt(nextString));
+                        } catch (NumberFormatException nfe) {
+                            throw new IllegalArgumentException("Improper formatting");
+                        }
+                        col++;
+                    }
+                }
+
+                row++;
+            }
+        }
+    }
+
+    /**
+     * @param board a String representation of a board
+     * @return the box size of the board, worked out from the amount of entries in its first row
+     * @throws IllegalArgumentException if the first row does not have a valid amount of entries
+     */
+    private static int boxSizeOf(String board) throws IllegalArgumentException {
+        Scanner rowScanner = new Scanner(new Scanner(board).nextLine());
+
+        int entries = 0;
+        while (rowScanner.hasNext()) {
+            rowScanner.next();
+            entries++;
+        }
+
+        for (int boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++) {
+            if (entries == boxSize * boxSize + boxSize - 1)
+                return boxSize;
+        }
+        throw new IllegalArgumentException("Improper formatting");
+    }
+
+    /**
+     * Copies a SudokuBoard making a deep copy.
+     * @param other another SudokuBoard we want to copy
+     */
+    public SudokuBoard(SudokuBoard other) {
+        boxSize = other.boxSize;
+        size = other.size;
+
+        cells = other.cells.clone();
+
+        rowMasks = other.rowMasks.clone();
+        colMasks = other.colMasks.clone();
+        boxMasks = other.boxMasks.clone();
+
+        rowCounts = other.rowCounts.clone();
+        colCounts = other.colCounts.clone();
+        boxCounts = other.boxCounts.clone();
+
+        repeats = other.repeats;
+        emptyCells = other.emptyCells;
+    }
+
+    /**
+     * @return the width and height of each box (3 for a standard board)
+     */
+    public int getBoxSize() {
+        return boxSize;
+    }
+
+    /**
+     * @return the width and height of the board, which is also the largest number (9 for a standard board)
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @param row the row of the cell number we want
+     * @param col the column of the cell number we want
+     * @return the cell number at the row and column in the board
+     * @throws IndexOutOfBoundsException if row or col is not 0 - (size - 1)
+     */
+    public int getCell(int row, int col) throws IndexOutOfBoundsException {
+        if (row < 0 || size <= row || col < 0 || size <= col)
+            throw new IndexOutOfBoundsException("Invalid row or col");
+        return cells[row * size + col];
+    }
+
+    /**
+     * Gets a cell by its packed index, for code which walks over every cell and does not want to split the index
+     * into a row and column.
+     * @param index the index of the cell number we want (row * size + col)
+     * @return the cell number at the index in the board
+     * @throws IndexOutOfBoundsException if index is not 0 - (size * size - 1)
+     */
+    public int getCell(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= cells.length)
+            throw new IndexOutOfBoundsException("Invalid index");
+        return cells[index];
+    }
+
+    /**
+     * @param coord the coordinate of the cell number we want
+     * @return the cell number at the coordinate in the board
+     * @throws IndexOutOfBoundsException if the coordinate is out of bounds
+     */
+    public int getCell(Coordinate coord) throws IndexOutOfBoundsException {
+        return getCell(coord.getRow(), coord.getCol());
+    }
+
+    /**
+     * @param row the row of the cell we want to set
+     * @param col the column of the cell we want to set
+     * @param cell the cell number we want to set
+     * @throws IndexOutOfBoundsException if row or col is out of bounds
+     * @throws IllegalArgumentException if cell is not 0 - size
+     */
+    public void setCell(int row, int col, int cell) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (row < 0 || row >= size || col < 0 || col >= size)
+            throw new IndexOutOfBoundsException("Row or col out of bounds");
+        else if (cell < 0 || cell > size)
+            throw new IllegalArgumentException("Cell number must be between 0 and " + size);
+
+        place(row, col, cell);
+    }
+
+    /**
+     * Sets a cell by its packed index, for code which walks over every cell and does not want to split the index
+     * into a row and column.
+     * @param index the index of the cell we want to set (row * size + col)
+     * @param cell the cell number we want to set
+     * @throws IndexOutOfBoundsException if index is not 0 - (size * size - 1)
+     * @throws IllegalArgumentException if cell is not 0 - size
+     */
+    public void setCell(int index, int cell) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (index < 0 || index >= cells.length)
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        else if (cell < 0 || cell > size)
+            throw new IllegalArgumentException("Cell number must be between 0 and " + size);
+
+        place(index / size, index % size, cell);
+    }
+
+    /**
+     * Sets a cell and updates the counts and masks of its row, column, and box. The arguments must already be checked.
+     * @param row the row of the cell we want to set
+     * @param col the column of the cell we want to set
+     * @param cell the cell number we want to set
+     */
+    private void place(int row, int col, int cell) {
+        int box = row / boxSize * boxSize + col / boxSize;
+        int oldCell = cells[row * size + col];
+        int stride = size + 1;
+
+        // Take the old number out of its row, column, and box (only clearing a mask bit when no copy is left)
+        if (oldCell != 0) {
+            if (--rowCounts[row * stride + oldCell] == 0)
+                rowMasks[row] &= ~(1 << oldCell);
+            else
+                repeats--;
+            if (--colCounts[col * stride + oldCell] == 0)
+                colMasks[col] &= ~(1 << oldCell);
+            else
+                repeats--;
+            if (--boxCounts[box * stride + oldCell] == 0)
+                boxMasks[box] &= ~(1 << oldCell);
+            else
+                repeats--;
+
+            emptyCells++;
+        }
+
+        cells[row * size + col] = (byte) cell;
+
+        // Then put the new number in, counting a repeat for each unit that already had it
+        if (cell != 0) {
+            if (rowCounts[row * stride + cell]++ != 0)
+                repeats++;
+            if (colCounts[col * stride + cell]++ != 0)
+                repeats++;
+            if (boxCounts[box * stride + cell]++ != 0)
+                repeats++;
+
+            rowMasks[row] |= 1 << cell;
+            colMasks[col] |= 1 << cell;
+            boxMasks[box] |= 1 << cell;
+
+            emptyCells--;
+        }
+    }
+
+    /**
+     * @param coord the coordinate of the cell we want to set
+     * @param cell the cell number we want to set
+     * @throws IndexOutOfBoundsException if the coordinate is out of bounds
+     * @throws IllegalArgumentException if cell is not 0 - size
+     */
+    public void setCell(Coordinate coord, int cell) throws IndexOutOfBoundsException, IllegalArgumentException {
+        setCell(coord.getRow(), coord.getCol(), cell);
+    }
+
+    /**
+     * @param numRow the index of the row to be returned
+     * @return the list of numbers in the row
+     * @throws IndexOutOfBoundsException if numRow is not 0 - (size - 1)
+     */
+    public ArrayList<Integer> getRow(int numRow) {
+        if (numRow < 0 || numRow >= size)
+            throw new IndexOutOfBoundsException("numRow must be between 0 and " + (size - 1));
+
+        ArrayList<Integer> row = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            row.add((int) cells[numRow * size + i]);
+
+        return row;
+    }
+
+    /**
+     * Gets the numbers that can still be placed at a cell without repeating a number in its row, column, or box. The
+     * number already in the cell (if any) is counted as being used.
+     * @param row the row of the cell we want the candidates of
+     * @param col the column of the cell we want the candidates of
+     * @return a bitmask where bit n (1 - size) is set if n is a candidate for the cell
+     * @throws IndexOutOfBoundsException if row or col is not 0 - (size - 1)
+     */
+    public int getCandidates(int row, int col) throws IndexOutOfBoundsException {
+        if (row < 0 || row >= size || col < 0 || col >= size)
+            throw new IndexOutOfBoundsException("Row or col out of bounds");
+
+        int allNumbers = (1 << (size + 1)) - 2;
+        return ~(rowMasks[row] | colMasks[col] | boxMasks[row / boxSize * boxSize + col / boxSize]) & allNumbers;
+    }
+
+    /**
+     * Clears the current board, setting each cell to be 0.
+     */
+    private void clearBoard() {
+        Arrays.fill(cells, (byte) 0);
+
+        Arrays.fill(rowMasks, 0);
+        Arrays.fill(colMasks, 0);
+        Arrays.fill(boxMasks, 0);
+
+        Arrays.fill(rowCounts, (byte) 0);
+        Arrays.fill(colCounts, (byte) 0);
+        Arrays.fill(boxCounts, (byte) 0);
+
+        repeats = 0;
+        emptyCells = cells.length;
+    }
+
+    /**
+     * Generates a filled, valid sudoku board. This algorithm works by
+     * going row by row in order, but randomizing the order in which it fills specific rows while
+     * utilizing backtracking. This randomizing occurs to make each call of generateBoard()
+     * produce a seemingly random board.
+     */
+    public void generateBoard() {
+        generateBoard(new SplittableRandom());
+    }
+
+    /**
+     * Generates a filled, valid sudoku board in the same way as {@link #generateBoard()}, but using the given random
+     * number generator. Given generators in the same state, the same board will be generated.
+     * <p>
+     * Backtracking cell by cell is hopeless past 9x9, so boards of other sizes are filled by giving each box on the
+     * main diagonal a random ordering of the numbers (those boxes share no row or column) and finishing the board with
+     * a randomized Dancing Links search, starting over from new diagonal boxes if the search runs too long.
+     * @param random the random number generator to randomize the board with
+     */
+    public void generateBoard(RandomGenerator random) {
+        MetricsListener listener = Metrics.listener();
+        long start = listener == null ? 0 : System.nanoTime();
+
+        clearBoard();
+
+        if (boxSize != 3)
+            generateLargeBoard(random);
+        else
+            generateStandardBoard(random);
+
+        if (listener != null)
+            listener.phaseFinished(MetricsListener.Phase.FILL, System.nanoTime() - start);
+    }
+
+    /**
+     * Fills the (empty) board for box size 3. See {@link #generateBoard(RandomGenerator)}.
+     * @param random the random number generator to randomize the board with
+     */
+    private void generateStandardBoard(RandomGenerator random) {
+        // Each row gets a random ordering of its columns, and the cells are filled starting from the last one added
+        // (the path used to be a stack of Coordinates pushed in this order)
+        int[] path = new int[81];
+        for (int row = 0; row < 9; row++) {
+            int[] randomCols = getRandomNumbers(9, random);
+
+            for (int i = 0; i < 9; i++)
+                path[80 - (row * 9 + i)] = row * 9 + randomCols[i];
+        }
+
+        SolverContext context = SolverContext.forCurrentThread(3);
+        if (!context.solve(this, path, 81))
+            throw new IllegalStateException("Board unsolvable");
+
+        context.copySolutionTo(this);
+    }
+
+    /**
+     * Fills the (empty) board for box sizes other than 3. See {@link #generateBoard(RandomGenerator)}.
+     * @param random the random number generator to randomize the board with
+     */
+    private void generateLargeBoard(RandomGenerator random) {
+        DancingLinksSolver solver = DancingLinksSolver.forCurrentThread(boxSize);
+
+        while (true) {
+            for (int box = 0; box < boxSize; box++) {
+                int[] numbers = getRandomNumbers(size, random);
+                for (int i = 0; i < size; i++)
+                    setCell(box * boxSize + i / boxSize, box * boxSize + i % boxSize, numbers[i] + 1);
+            }
+
+            // Give up on this start after a generous amount of search (some starts lead into huge dead ends)
+            SudokuBoard filled = solver.solveRandomly(this, random, 20L * cells.length);
+            if (filled != null) {
+                for (int i = 0; i < cells.length; i++)
+                    setCell(i, filled.cells[i]);
+                return;
+            }
+
+            clearBoard();
+        }
+    }
+
+    /**
+     * Generates a partially filled sudoku board from a fully filled board. This algorithm ensures that there is only
+     * one solution for the puzzle generated. Note that if the board is not filled, an exception will be thrown.
+     * @return a sudoku puzzle with one solution
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @throws IllegalStateException if the board is not full or invalid
+     * @throws IllegalArgumentException if the numbers left is too small and a unique puzzle cannot be created
+     * or if the numbers left is greater than or equal to the amount of cells (i.e. the user wants to generate a
+     * filled board)
+     */
+    public SudokuBoard generatePuzzle(int numbersLeft) {
+        return generatePuzzle(numbersLeft, new SplittableRandom());
+    }
+
+    /**
+     * Generates a puzzle in the same way as {@link #generatePuzzle(int)}, but using the given random number generator.
+     * Given the same board and generators in the same state, the same puzzle will be generated.
+     * @return a sudoku puzzle with one solution
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param random the random number generator to pick the cells to remove with
+     * @throws IllegalStateException if the board is not full or invalid
+     * @throws IllegalArgumentException if the numbers left is too small and a unique puzzle cannot be created
+     * or if the numbers left is greater than or equal to the amount of cells (i.e. the user wants to generate a
+     * filled board)
+     */
+    public SudokuBoard generatePuzzle(int numbersLeft, RandomGenerator random) {
+        SearchResult<SudokuBoard> result = generatePuzzle(numbersLeft, random, Budget.UNLIMITED);
+        if (!result.isFound())
+            throw new IllegalArgumentException("The board must have more numbers left on the board to " +
+                    "have a unique solution");
+
+        return result.getValue();
+    }
+
+    /**
+     * Generates a puzzle in the same way as {@link #generatePuzzle(int, RandomGenerator)}, but stops early if the
+     * budget runs out (the budget covers every uniqueness check, so a board which is slow to cut down cannot hold up
+     * the caller for long).
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param random the random number generator to pick the cells to remove with
+     * @param budget the budget of the generation
+     * @return the puzzle if it was FOUND, NOT_FOUND if the numbers left is too small for a unique puzzle to be made,
+     * or why the budget ran out
+     * @throws IllegalStateException if the board is not full or invalid
+     * @throws IllegalArgumentException if the numbers left is greater than or equal to the amount of cells
+     */
+    public SearchResult<SudokuBoard> generatePuzzle(int numbersLeft, RandomGenerator random, Budget budget)
+            throws IllegalStateException, IllegalArgumentException {
+        int[] lineToRemove = removalLine(random);
+        int lineLength = lineToRemove.length;
+        if (numbersLeft >= lineLength)
+            throw new IllegalArgumentException("Numbers left must be less than " + lineLength);
+
+        MetricsListener listener = Metrics.listener();
+        long start = listener == null ? 0 : System.nanoTime();
+        int checks = 0;
+
+        // We will remove from the copy as to not lose the original (the solution)
+        SudokuBoard puzzleBoard = new SudokuBoard(this);
+
+        // We want to have a certain amount of numbers left on the board (note that if this is too small,
+        // an exception will be thrown)
+        int numLeft = cells.length;
+        int next = 0;
+        DancingLinksSolver solver = DancingLinksSolver.forCurrentThread(boxSize);
+
+        // We want to stop once we have N numbers left on the board
+        while (numLeft > numbersLeft) {
+
+            if (next == lineLength) {
+                if (listener != null)
+                    reportRemoval(listener, start, checks, checks - (cells.length - numLeft));
+                return new SearchResult<>(SearchResult.Status.NOT_FOUND, null);
+            }
+
+            int index = lineToRemove[next++];
+            // Remove it and record what number it was
+            int cellNum = puzzleBoard.getCell(index);
+            puzzleBoard.setCell(index, 0);
+
+            // If the puzzle can be solved another way without the cell (i.e. with a different number there), we
+            // cannot remove it. Otherwise, the cell stays removed
+            checks++;
+            SearchResult<Integer> count = solver.countSolutions(puzzleBoard, 2, budget);
+
+            // If the budget ran out, there is no way of knowing if the cell can be removed, so give up
+            if (!count.isFound()) {
+                if (listener != null)
+                    reportRemoval(listener, start, checks, checks - (cells.length - numLeft));
+                return new SearchResult<>(count.getStatus(), null);
+            }
+
+            if (count.getValue() > 1)
+                puzzleBoard.setCell(index, cellNum);
+            else
+                numLeft--;
+        }
+
+        if (listener != null)
+            reportRemoval(listener, start, checks, checks - (cells.length - numLeft));
+
+        return new SearchResult<>(SearchResult.Status.FOUND, puzzleBoard);
+    }
+
+    /**
+     * Puts the cells of the board in the order {@link #generatePuzzle(int, RandomGenerator, Budget)} tries to remove
+     * them: a random order where each cell not on the main diagonal is followed by its symmetric complement.
+     * @param random the random number generator to shuffle the cells with
+     * @return the cell indices (row * size + col) of every cell, in the order to remove them
+     * @throws IllegalStateException if the board is not full or invalid
+     */
+    int[] removalLine(RandomGenerator random) throws IllegalStateException {
+        if (!isFull())
+            throw new IllegalStateException("Board has not been generated");
+        else if (!isValid())
+            throw new IllegalStateException("Board is invalid");
+
+        /* Construct a list of half of the coordinates such that j >= i for each coordinate
+         * This gets the upper triangle such that coordinates above the main diagonal are not counted right now
+         * i.e. only values of 1 are counted
+         *
+         * 1 1 1 1 1 1 1 1 1
+         * 0 1 1 1 1 1 1 1 1
+         * 0 0 1 1 1 1 1 1 1
+         * 0 0 0 1 1 1 1 1 1
+         * 0 0 0 0 1 1 1 1 1
+         * 0 0 0 0 0 1 1 1 1
+         * 0 0 0 0 0 0 1 1 1
+         * 0 0 0 0 0 0 0 1 1
+         * 0 0 0 0 0 0 0 0 1
+         *
+         */
+        // The coordinates are kept packed as cell indices (row * size + col), so building the line allocates nothing
+        // but the two arrays
+        int[] halfCoordinates = new int[size * (size + 1) / 2];
+        int halfCount = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = i; j < size; j++) {
+                halfCoordinates[halfCount++] = i * size + j;
+            }
+        }
+
+        shuffle(halfCoordinates, random);
+
+        // We will then put each coordinate in a line where for each coordinate that has a symmetric complement (not on
+        // the diagonal) the next coordinate in line is that complement (so, (6, 0) is followed by (0, 6), etc.)
+        int[] lineToRemove = new int[cells.length];
+        int lineLength = 0;
+
+        // Add each element to the line in the shuffled order
+        for (int c : halfCoordinates) {
+            lineToRemove[lineLength++] = c;
+            int row = c / size;
+            int col = c % size;
+            // If it is not the diagonal, add its complement
+            if (row != col)
+                lineToRemove[lineLength++] = col * size + row;
+        }
+
+        return lineToRemove;
+    }
+
+    /**
+     * Tells a metrics listener about removing numbers from a board.
+     * @param listener the listener
+     * @param start when removing started (from System.nanoTime())
+     * @param checks how many removals were checked
+     * @param rejected how many removals were put back
+     */
+    private static void reportRemoval(MetricsListener listener, long start, int checks, int rejected) {
+        listener.removalFinished(checks, rejected);
+        listener.phaseFinished(MetricsListener.Phase.REMOVE, System.nanoTime() - start);
+    }
+
+    /**
+     * Tries to solve the board using a backtracking algorithm. This is only practical on boards up to 9x9; larger
+     * boards should be solved with {@link SolverEngine#DANCING_LINKS} or {@link SolverEngine#PROPAGATION}.
+     * <p>
+     * The search runs in the current thread's {@link SolverContext}, so the only thing allocated is the solved board.
+     * @return the solved board (if possible). Null if the board cannot be solved
+     */
+    public SudokuBoard solved() {
+        SolverContext context = SolverContext.forCurrentThread(boxSize);
+
+        // If we are unable to solve the board
+        if (!context.solve(this))
+            return null;
+
+        SudokuBoard boardCopy = new SudokuBoard(this);
+        context.copySolutionTo(boardCopy);
+        return boardCopy;
+    }
+
+    /**
+     * Tries to solve the board in the same way as {@link #solved()}, but stops early if the budget runs out.
+     * @param budget the budget of the search
+     * @return the solved board if it was FOUND, NOT_FOUND if the board cannot be solved, or why the budget ran out
+     */
+    public SearchResult<SudokuBoard> solved(Budget budget) {
+        SolverContext context = SolverContext.forCurrentThread(boxSize);
+
+        SearchResult.Status status = context.solve(this, budget);
+        if (status != SearchResult.Status.FOUND)
+            return new SearchResult<>(status, null);
+
+        SudokuBoard boardCopy = new SudokuBoard(this);
+        context.copySolutionTo(boardCopy);
+        return new SearchResult<>(status, boardCopy);
+    }
+
+    /**
+     * Counts the solutions of the board, stopping as soon as the limit is reached. This is much cheaper than solving
+     * the board once for each alternative when we only need to know if a solution is unique.
+     * @param limit the most solutions we care about (2 is enough to tell if there is exactly one solution)
+     * @return the amount of solutions the board has, or limit if it has at least that many (0 if the board is invalid)
+     * @throws IllegalArgumentException if limit is less than 1
+     */
+    public int countSolutions(int limit) throws IllegalArgumentException {
+        return DancingLinksSolver.forCurrentThread(boxSize).countSolutions(this, limit);
+    }
+
+    /**
+     * Tries to solve the board using the given engine.
+     * @param engine the algorithm to solve the board with
+     * @return the solved board (if possible). Null if the board cannot be solved
+     * @see Engines
+     */
+    public SudokuBoard solved(Solver engine) {
+        return engine.solve(this);
+    }
+
+    /**
+     * Generates an int array that is a certain length with numbers 0 - (n - 1) randomly placed throughout
+     * @param n the amount of random numbers we want
+     * @param random the random number generator to place the numbers with
+     * @return an int array that is n long with randomly placed numbers 0 - (n - 1) placed throughout
+     * @throws IllegalArgumentException if n is less than 1
+     */
+    private static int[] getRandomNumbers(int n, RandomGenerator random) {
+        if (n < 1)
+            throw new IllegalArgumentException("n must be positive");
+
+        int[] randomNumbers = new int[n];
+        for (int i = 0; i < n; i++)
+            randomNumbers[i] = i;
+
+        // Fisher-Yates shuffle: swap each spot with a random spot at or before it
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+
+            int temp = randomNumbers[i];
+            randomNumbers[i] = randomNumbers[j];
+            randomNumbers[j] = temp;
+        }
+
+        return randomNumbers;
+    }
+
+    /**
+     * Randomly reorders an array in place (a Fisher-Yates shuffle).
+     * @param array the array to shuffle
+     * @param random the random number generator to shuffle with
+     */
+    private static void shuffle(int[] array, RandomGenerator random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+
+            int temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }
+    }
+
+    /**
+     * Generates a list of Coordinates in the current board that have a contradiction. The contradiction may arise
+     * in the row, column, or box.
+     * @return an ArrayList of Coordinates representing the locations of contradictions in the puzzle
+     */
+    public ArrayList<Coordinate> getContradictions() {
+        ArrayList<Coordinate> contradictions = new ArrayList<>();
+        // Without any repeats there is nothing to look for
+        if (repeats == 0)
+            return contradictions;
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (!isValidCell(i, j))
+                    contradictions.add(Coordinate.of(i, j));
+            }
+        }
+        return contradictions;
+    }
+
+    /**
+     * @return if the puzzle does not have any contradictions
+     */
+    public boolean isValid() {
+        // Any contradiction comes from a number repeated in a row, column, or box
+        return repeats == 0;
+    }
+
+    /**
+     * @return if the puzzle has no empty (0) cells
+     */
+    public boolean isFull() {
+        return emptyCells == 0;
+    }
+
+    /**
+     * @param row the row of the cell we want to check
+     * @param col the column of the cell we want to check
+     * @return if the cell at the row and column specified creates any contradictions
+     * @throws IndexOutOfBoundsException if the row or col is out of bounds
+     */
+    private boolean isValidCell(int row, int col) throws IndexOutOfBoundsException {
+        if (row < 0 || row >= size || col < 0 || col >= size)
+            throw new IndexOutOfBoundsException("row or col is out of bounds");
+
+        // For a cell to be valid, it must either be empty or have no repetitions in column, row, or box
+        return getCell(row, col) == 0 || (isValidRow(row, col) && isValidCol(row, col) && isValidBox(row, col));
+    }
+
+    /**
+     * @param row the row of the cell we want to check
+     * @param col the column of the cell we want to check
+     * @return if the cell at the specified coordinate creates any contradictions in its row
+     * @throws IndexOutOfBoundsException if the row or col is out of bounds
+     */
+    private boolean isValidRow(int row, int col) throws IndexOutOfBoundsException {
+        if (row < 0 || row >= size || col < 0 || col >= size)
+            throw new IndexOutOfBoundsException("row or col is out of bounds");
+
+        // If the number shows up anywhere else in the row, it is not valid
+        return rowCounts[row * (size + 1) + cells[row * size + col]] <= 1;
+    }
+
+    /**
+     * @param coord the coordinate of the cell we want to check
+     * @return if the cell at the specified coordinate creates any contradictions in its row
+     * @throws IndexOutOfBoundsException if the coordinate is out of bounds
+     */
+    private boolean isValidRow(Coordinate coord) throws IndexOutOfBoundsException {
+        return isValidRow(coord.getRow(), coord.getCol());
+    }
+
+    /**
+     * @param row the row of the cell we want to check
+     * @param col the column of the cell we want to check
+     * @return if the cell at the specified coordinate creates any contradictions in its column
+     * @throws IndexOutOfBoundsException if the row or col is out of bounds
+     */
+    private boolean isValidCol(int row, int col) throws IndexOutOfBoundsException {
+        if (row < 0 || row >= size || col < 0 || col >= size)
+            throw new IndexOutOfBoundsException("row or col is out of bounds");
+
+        // If the number shows up anywhere else in the column, it is not valid
+        return colCounts[col * (size + 1) + cells[row * size + col]] <= 1;
+    }
+
+    /**
+     * @param coord the coordinate of the cell we want to check
+     * @return if the cell at the specified coordinate creates any contradictions in its column
+     * @throws IndexOutOfBoundsException if the coordinate is out of bounds
+     */
+    private boolean isValidCol(Coordinate coord) throws IndexOutOfBoundsException {
+        return isValidCol(coord.getRow(), coord.getCol());
+    }
+
+    /**
+     * @param row the row of the cell we want to check
+     * @param col the column of the cell we want to check
+     * @return if the cell at the specified coordinate creates any contradictions in its box
+     * @throws IndexOutOfBoundsException if the row or col is out of bounds
+     */
+    private boolean isValidBox(int row, int col) throws IndexOutOfBoundsException {
+        if (row < 0 || row >= size || col < 0 || col >= size)
+            throw new IndexOutOfBoundsException("row or col is out of bounds");
+
+        int boxRow = row / boxSize; // the box row will be 0 - (boxSize - 1)
+        int boxCol = col / boxSize; // the box col will be 0 - (boxSize - 1)
+
+        // If the number shows up anywhere else in the surrounding box, it is not valid
+        return boxCounts[(boxRow * boxSize + boxCol) * (size + 1) + cells[row * size + col]] <= 1;
+    }
+
+    /**
+     * @param coord the coordinate of the cell we want to check
+     * @return if the cell at the specified coordinate creates any contradictions in its box
+     * @throws IndexOutOfBoundsException if the coordinate is out of bounds
+     */
+    private boolean isValidBox(Coordinate coord) {
+        return isValidBox(coord.getRow(), coord.getCol());
+    }
+
+    /**
+     * Makes a copy of the board with its cells moved around and its numbers relabeled in a single pass.
+     * @param cellMap for each cell index (row * size + col) of the copy, the index of the cell of this board it takes
+     *                its number from
+     * @param numberMap for each number 0 - size, the number it becomes in the copy (0 should stay 0)
+     * @return the remapped copy of the board
+     * @see BoardTransform
+     */
+    SudokuBoard remapped(int[] cellMap, int[] numberMap) {
+        SudokuBoard copy = new SudokuBoard(boxSize);
+        for (int i = 0; i < cells.length; i++)
+            copy.setCell(i, numberMap[cells[cellMap[i]]]);
+
+        return copy;
+    }
+
+    /**
+     * Flips a board clockwise by 90 degrees.
+     */
+    public void flip() {
+        // This will be our reference board
+        SudokuBoard boardCopy = new SudokuBoard(this);
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                // We will move the element at (last - j, i) to (i, j) --> makes the board flip by 90 degrees clockwise
+                setCell(i, j, boardCopy.getCell(size - 1 - j, i));
+            }
+        }
+    }
+
+    /**
+     * Mirrors a board along the horizontal line such that the top and the bottom mirror each other.
+     */
+    public void mirror() {
+        // This will be our reference board
+        SudokuBoard boardCopy = new SudokuBoard(this);
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                // Row i takes on what was in row last - i
+                setCell(i, j, boardCopy.getCell(size - 1 - i, j));
+            }
+        }
+    }
+
+    /**
+     * Gets a list of the numbers 1 - size. Note that numbers that have been solved (there are size of them in the
+     * puzzle) will be represented with a -1. So, for a standard puzzle which has solved all the 2, 4, and 9s, this
+     * method would return {1, -1, 3, -1, 5, 6, 7, 8, -1}
+     * @return a list of numbers that have not all been placed with -1 designated a solved number
+     */
+    public ArrayList<Integer> getUnsolvedNums() {
+        ArrayList<Integer> unsolved = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // A number is solved once every row has it, which the row masks tell us without copying any rows
+            int count = 0;
+            for (int j = 0; j < size; j++) {
+                if ((rowMasks[j] & 1 << (i + 1)) != 0) {
+                    count++;
+                }
+            }
+            if (!(count == size)) {
+                unsolved.add(i+1);
+            } else {
+                unsolved.add(-1);
+            }
+        }
+        return unsolved;
+    }
+
+    @Override
+    public String toString() {
+        // Count each number from the row masks (each row has a number at most once)
+        int[] placed = new int[size + 1];
+        for (int mask : rowMasks) {
+            for (int bits = mask; bits != 0; bits &= bits - 1)
+                placed[Integer.numberOfTrailingZeros(bits)]++;
+        }
+
+        return toString(placed);
+    }
+
+    /**
+     * Draws the board, followed by a line of the numbers which have not been placed everywhere yet.
+     * @param placed how many times each number 1 - size has been placed on the board (index 0 is unused), so callers
+     *               which keep track of this (like {@link SudokuPuzzle}) don't need the board to count
+     * @return the board as text
+     */
+    String toString(int[] placed) {
+        StringBuilder boardString = new StringBuilder();
+        // Every cell and row label is padded to the width of the largest number (2 characters past 9x9)
+        int width = Integer.toString(size).length();
+        String line = "-".repeat(size * (width + 1) + boxSize);
+
+        // We want to have column designators which will just be a line of 1 - size to indicate which is which
+
+        // We need three spaces to start (on a standard board). The for loop adds two spaced between them if they are
+        // in different boxes, so we need an extra space at the start
+        boardString.append(" ".repeat(width));
+
+        // Add all the numbers 1 - size to the top and separate them properly
+        for (int i = 0; i < size; i++) {
+            // If the number is in a new box, add an extra space
+            if (i % boxSize == 0)
+                boardString.append("  ");
+
+            appendPadded(boardString, Integer.toString(i + 1), width);
+            boardString.append(" ");
+
+        }
+        // Enclose the box with a top line
+        boardString.append("\n").append(" ".repeat(width + 2)).append(line).append("\n");
+
+        // For every row
+        for (int i = 0; i < size; i++) {
+            // The start of each row will be the row indicator followed by the side of the box
+            appendPadded(boardString, Integer.toString(i + 1), width);
+            boardString.append(" |");
+
+            // We need boxSize iterations of numbers 0 0 0 | 0 0 0 | 0 0 0
+            for (int j = 0; j < boxSize; j++) {
+                // For every boxSize numbers
+                for (int k = 0; k < boxSize; k++) {
+                    int cellNum = getCell(i, j * boxSize + k);
+
+                    // If the cell is empty, put a dash
+                    if (cellNum == 0)
+                        appendPadded(boardString, "-", width);
+                    else // Otherwise append the number
+                        appendPadded(boardString, Integer.toString(cellNum), width);
+
+                    // Also if it is not the last number, add a space so the numbers are spaced out a bit
+                    if (j * boxSize + k < size - 1)
+                        boardString.append(" ");
+                }
+
+                // If it is not the last set, we want a separator
+                if (j < boxSize - 1)
+                    boardString.append("| ");
+                else // If it is the last set, enclose the box on the left and add a newline
+                    boardString.append("|\n");
+            }
+            // If it is the last row of a box (other than the last box), we want a separator
+            if (i % boxSize == boxSize - 1 && i < size - 1)
+                boardString.append(" ".repeat(width + 1)).append("|").append(line).append("|\n");
+        }
+
+        // Enclose the box on the bottom with a line
+        boardString.append(" ".repeat(width + 2)).append(line).append("\n").append(" ".repeat(width + 4));
+
+        for (int i = 0; i < size; i++) {
+            if (placed[i + 1] != size) {
+                appendPadded(boardString, Integer.toString(i + 1), width);
+                boardString.append(" ");
+            } else {
+                boardString.append(" ".repeat(width + 1));
+            }
+        }
+
+        return boardString.toString();
+    }
+
+    /**
+     * Appends text to a StringBuilder, padded on the left with spaces to a certain width.
+     * @param builder the StringBuilder to append to
+     * @param text the text to append
+     * @param width the least amount of characters to append
+     */
+    private static void appendPadded(StringBuilder builder, String text, int width) {
+        for (int i = text.length(); i < width; i++)
+            builder.append(' ');
+        builder.append(text);
+    }
+}
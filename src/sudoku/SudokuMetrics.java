@@ -0,0 +1,268 @@
+package sudoku;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A {@link MetricsListener} which totals everything it hears about and shows the totals over JMX (as
+ * {@value #OBJECT_NAME}), so they can be watched with tools like JConsole. The counters are striped
+ * ({@link LongAdder}), so many threads can report at once without fighting over them.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class SudokuMetrics implements MetricsListener, SudokuMetricsMBean {
+    /**
+     * The name the metrics are registered under in JMX.
+     */
+    public static final String OBJECT_NAME = "sudoku:type=SudokuMetrics";
+
+    /**
+     * How many searches have finished.
+     */
+    private final LongAdder searches = new LongAdder();
+    /**
+     * How many times a number was tried in a cell across every search.
+     */
+    private final LongAdder nodes = new LongAdder();
+    /**
+     * How many dead ends were backtracked out of across every search.
+     */
+    private final LongAdder backtracks = new LongAdder();
+    /**
+     * The most guesses any search has made at once.
+     */
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+
+    /**
+     * How many times numbers have been removed from a filled board to make a puzzle.
+     */
+    private final LongAdder removals = new LongAdder();
+    /**
+     * How many removals were checked for keeping the solution unique.
+     */
+    private final LongAdder checks = new LongAdder();
+    /**
+     * How many removals had to be put back.
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * How many puzzles have been made at a difficulty.
+     */
+    private final LongAdder difficultyPuzzles = new LongAdder();
+    /**
+     * How many extra puzzles had to be generated to get puzzles at a difficulty.
+     */
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * How many puzzles the minimal generator has found.
+     */
+    private final LongAdder minimalPuzzles = new LongAdder();
+    /**
+     * How many times the minimal generator gave up without finding a puzzle.
+     */
+    private final LongAdder minimalFailures = new LongAdder();
+    /**
+     * How many passes the minimal generator has made.
+     */
+    private final LongAdder minimalAttempts = new LongAdder();
+
+    /**
+     * The time spent in each phase in nanoseconds (indexed by the phase's ordinal).
+     */
+    private final LongAdder[] phaseNanos;
+
+    /**
+     * Constructs metrics with every count at 0 (they only start counting once installed as the listener).
+     */
+    public SudokuMetrics() {
+        phaseNanos = new LongAdder[Phase.values().length];
+        for (int i = 0; i < phaseNanos.length; i++)
+            phaseNanos[i] = new LongAdder();
+    }
+
+    /**
+     * Makes new metrics, installs them as the listener, and registers them with the platform MBean server (replacing
+     * any metrics registered before).
+     * @return the installed metrics
+     * @throws IllegalStateException if the metrics cannot be registered with JMX
+     */
+    public static SudokuMetrics install() throws IllegalStateException {
+        SudokuMetrics metrics = new SudokuMetrics();
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+            server.registerMBean(metrics, name);
+        } catch (JMException jme) {
+            throw new IllegalStateException("Metrics could not be registered: " + jme.getMessage());
+        }
+
+        Metrics.setListener(metrics);
+        return metrics;
+    }
+
+    @Override
+    public void searchFinished(SolverEngine engine, long nodes, long backtracks, int maxDepth) {
+        searches.increment();
+        this.nodes.add(nodes);
+        this.backtracks.add(backtracks);
+        this.maxDepth.accumulate(maxDepth);
+    }
+
+    @Override
+    public void removalFinished(int checks, int rejected) {
+        removals.increment();
+        this.checks.add(checks);
+        this.rejected.add(rejected);
+    }
+
+    @Override
+    public void puzzleFinished(Difficulty difficulty, int attempts) {
+        difficultyPuzzles.increment();
+        retries.add(attempts - 1);
+    }
+
+    @Override
+    public void minimalSearchFinished(int numbersLeft, int attempts, boolean found) {
+        (found ? minimalPuzzles : minimalFailures).increment();
+        minimalAttempts.add(attempts);
+    }
+
+    @Override
+    public void phaseFinished(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()].add(nanos);
+    }
+
+    @Override
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    @Override
+    public long getNodesVisited() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getBacktracks() {
+        return backtracks.sum();
+    }
+
+    @Override
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    @Override
+    public long getRemovals() {
+        return removals.sum();
+    }
+
+    @Override
+    public long getUniquenessChecks() {
+        return checks.sum();
+    }
+
+    @Override
+    public double getUniquenessChecksPerPuzzle() {
+        long count = removals.sum();
+        return count == 0 ? 0 : (double) checks.sum() / count;
+    }
+
+    @Override
+    public long getRejectedRemovals() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getDifficultyPuzzles() {
+        return difficultyPuzzles.sum();
+    }
+
+    @Override
+    public long getConstructorRetries() {
+        return retries.sum();
+    }
+
+    @Override
+    public long getMinimalPuzzles() {
+        return minimalPuzzles.sum();
+    }
+
+    @Override
+    public long getMinimalFailures() {
+        return minimalFailures.sum();
+    }
+
+    @Override
+    public long getMinimalAttempts() {
+        return minimalAttempts.sum();
+    }
+
+    @Override
+    public long getFillMillis() {
+        return phaseMillis(Phase.FILL);
+    }
+
+    @Override
+    public long getRemoveMillis() {
+        return phaseMillis(Phase.REMOVE);
+    }
+
+    @Override
+    public long getGradeMillis() {
+        return phaseMillis(Phase.GRADE);
+    }
+
+    @Override
+    public long getTransformMillis() {
+        return phaseMillis(Phase.TRANSFORM);
+    }
+
+    /**
+     * @param phase a phase
+     * @return the time spent in the phase in milliseconds
+     */
+    private long phaseMillis(Phase phase) {
+        return phaseNanos[phase.ordinal()].sum() / 1_000_000;
+    }
+
+    @Override
+    public void reset() {
+        searches.reset();
+        nodes.reset();
+        backtracks.reset();
+        maxDepth.reset();
+        removals.reset();
+        checks.reset();
+        rejected.reset();
+        difficultyPuzzles.reset();
+        retries.reset();
+        minimalPuzzles.reset();
+        minimalFailures.reset();
+        minimalAttempts.reset();
+        for (LongAdder nanos : phaseNanos)
+            nanos.reset();
+    }
+
+    /**
+     * @return a summary of the metrics on one line
+     */
+    @Override
+    public String toString() {
+        return String.format("searches=%d nodes=%d backtracks=%d maxDepth=%d checks/puzzle=%.1f rejected=%d "
+                        + "retries=%d minimal=%d/%d minimalAttempts=%d fill=%dms remove=%dms grade=%dms transform=%dms",
+                getSearches(), getNodesVisited(), getBacktracks(), getMaxDepth(), getUniquenessChecksPerPuzzle(),
+                getRejectedRemovals(), getConstructorRetries(), getMinimalPuzzles(),
+                getMinimalPuzzles() + getMinimalFailures(), getMinimalAttempts(), getFillMillis(), getRemoveMillis(),
+                getGradeMillis(), getTransformMillis());
+    }
+}
@@ -0,0 +1,98 @@
+package sudoku;
+
+/**
+ * The JMX view of {@link SudokuMetrics}. Every count is a total since the metrics were installed or last reset.
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public interface SudokuMetricsMBean {
+    /**
+     * @return how many searches have finished
+     */
+    long getSearches();
+
+    /**
+     * @return how many times a number was tried in a cell across every search
+     */
+    long getNodesVisited();
+
+    /**
+     * @return how many dead ends were backtracked out of across every search
+     */
+    long getBacktracks();
+
+    /**
+     * @return the most guesses any search has made at once
+     */
+    long getMaxDepth();
+
+    /**
+     * @return how many times numbers have been removed from a filled board to make a puzzle
+     */
+    long getRemovals();
+
+    /**
+     * @return how many removals were checked for keeping the solution unique
+     */
+    long getUniquenessChecks();
+
+    /**
+     * @return the average amount of uniqueness checks (each a full search) per puzzle
+     */
+    double getUniquenessChecksPerPuzzle();
+
+    /**
+     * @return how many removals had to be put back because the solution was no longer unique
+     */
+    long getRejectedRemovals();
+
+    /**
+     * @return how many puzzles have been made at a difficulty
+     */
+    long getDifficultyPuzzles();
+
+    /**
+     * @return how many extra puzzles had to be generated to get puzzles at a difficulty
+     */
+    long getConstructorRetries();
+
+    /**
+     * @return how many puzzles the minimal generator has found
+     */
+    long getMinimalPuzzles();
+
+    /**
+     * @return how many times the minimal generator gave up without finding a puzzle
+     */
+    long getMinimalFailures();
+
+    /**
+     * @return how many passes the minimal generator has made (see {@link MinimalPuzzleGenerator})
+     */
+    long getMinimalAttempts();
+
+    /**
+     * @return how long has been spent filling boards, in milliseconds
+     */
+    long getFillMillis();
+
+    /**
+     * @return how long has been spent removing numbers from boards, in milliseconds
+     */
+    long getRemoveMillis();
+
+    /**
+     * @return how long has been spent grading puzzles, in milliseconds
+     */
+    long getGradeMillis();
+
+    /**
+     * @return how long has been spent shuffling new puzzles, in milliseconds
+     */
+    long getTransformMillis();
+
+    /**
+     * Sets every count back to 0.
+     */
+    void reset();
+}
@@ -0,0 +1,390 @@
+package sudoku;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class represents a sudoku puzzle. Each puzzle has a corresponding solution. In other words, each class has
+ * what the user is given, and what the correct answer is. When a user guesses, their attempt is then measured
+ * against the solution (which should have only one solution).
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public class SudokuPuzzle {
+    /**
+     * An uncompleted sudoku board. This puzzle corresponds to the other member representing the solution. (This should
+     * only have one solution).
+     */
+    private SudokuBoard puzzle;
+
+    /**
+     * The solution to the other member representing the unfilled version of the board. Guesses will be compared against
+     * this board.
+     */
+    private SudokuBoard solution;
+
+    /**
+     * The seed the puzzle was generated from (only meaningful if generated is true).
+     */
+    private long seed;
+    /**
+     * If the puzzle was generated from a seed rather than given.
+     */
+    private boolean generated;
+
+    /**
+     * How many cells of the puzzle are still empty (kept up to date by guess, so checking if the puzzle is solved does
+     * not have to look at every cell).
+     */
+    private int emptyCells;
+    /**
+     * How many times each number 1 - size has been placed in the puzzle (index 0 is unused).
+     */
+    private int[] placed;
+
+    /**
+     * Constructs a sudoku puzzle with a single solution from a random seed.
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @throws IllegalArgumentException if the numbers left is too small, generatePuzzle will throw an error
+     */
+    public SudokuPuzzle(int numbersLeft) throws IllegalArgumentException {
+        this(numbersLeft, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructs a sudoku puzzle with a single solution from a seed, using the default generator (see
+     * {@link Engines#defaultGenerator()}). The same seed and numbers left will always make the same puzzle with the
+     * same generator, so any puzzle can be made again from {@link #getSeed()}.
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param seed the seed of the random number generator used to make the puzzle
+     * @throws IllegalArgumentException if the numbers left is too small, generatePuzzle will throw an error
+     * @throws IllegalStateException if the default generator is misconfigured
+     */
+    public SudokuPuzzle(int numbersLeft, long seed) throws IllegalArgumentException, IllegalStateException {
+        this(3, numbersLeft, seed);
+    }
+
+    /**
+     * Constructs a sudoku puzzle with a single solution and a certain box size from a seed (so 16x16 puzzles have box
+     * size 4), using the default generator. The same box size, seed, and numbers left will always make the same puzzle
+     * with the same generator.
+     * @param boxSize the width and height of each box of the puzzle
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param seed the seed of the random number generator used to make the puzzle
+     * @throws IllegalArgumentException if the box size is not supported, or if the numbers left is too small,
+     * generatePuzzle will throw an error
+     * @throws IllegalStateException if the default generator is misconfigured
+     */
+    public SudokuPuzzle(int boxSize, int numbersLeft, long seed)
+            throws IllegalArgumentException, IllegalStateException {
+        if (generate(Engines.defaultGenerator(), boxSize, numbersLeft, seed, Budget.UNLIMITED)
+                != SearchResult.Status.FOUND)
+            throw new IllegalArgumentException("The board must have more numbers left on the board to " +
+                    "have a unique solution");
+    }
+
+    /**
+     * Constructs a sudoku puzzle with a single solution at a difficulty level from a random seed.
+     * @param difficulty the difficulty level we want the puzzle to be at
+     * @throws IllegalStateException if the default generator is misconfigured
+     */
+    public SudokuPuzzle(Difficulty difficulty) throws IllegalStateException {
+        this(difficulty, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructs a sudoku puzzle with a single solution at a difficulty level from a seed. Puzzles are generated with
+     * the level's numbers left and generator and graded until one is at the level. The same seed and difficulty will
+     * always make the same puzzle, and {@link #getSeed()} is the seed of the attempt that worked, so the puzzle can also
+     * be made again with {@link #SudokuPuzzle(int, long)} (if the level uses the default generator).
+     * @param difficulty the difficulty level we want the puzzle to be at
+     * @param seed the seed of the random number generator used to pick the seed of each attempt
+     * @throws IllegalStateException if the default generator is misconfigured
+     */
+    public SudokuPuzzle(Difficulty difficulty, long seed) throws IllegalStateException {
+        generate(difficulty, seed, Budget.UNLIMITED);
+    }
+
+    /**
+     * Constructs an empty puzzle for the factory methods to generate into.
+     */
+    private SudokuPuzzle() {}
+
+    /**
+     * Makes a puzzle like {@link #SudokuPuzzle(int, long)}, but stops early if the budget runs out.
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param seed the seed of the random number generator used to make the puzzle
+     * @param budget the budget of the generation
+     * @return the puzzle if it was FOUND, NOT_FOUND if the numbers left is too small for the board generated, or why
+     * the budget ran out
+     * @throws IllegalArgumentException if the numbers left is not less than the amount of cells
+     * @throws IllegalStateException if the default generator is misconfigured
+     */
+    public static SearchResult<SudokuPuzzle> create(int numbersLeft, long seed, Budget budget)
+            throws IllegalArgumentException, IllegalStateException {
+        SudokuPuzzle puzzle = new SudokuPuzzle();
+        SearchResult.Status status = puzzle.generate(Engines.defaultGenerator(), 3, numbersLeft, seed, budget);
+
+        return new SearchResult<>(status, status == SearchResult.Status.FOUND ? puzzle : null);
+    }
+
+    /**
+     * Makes a puzzle like {@link #SudokuPuzzle(Difficulty, long)}, but stops early if the budget runs out. The budget
+     * covers every attempt, so a difficulty which takes many attempts to hit cannot hold up the caller for long.
+     * @param difficulty the difficulty level we want the puzzle to be at
+     * @param seed the seed of the random number generator used to pick the seed of each attempt
+     * @param budget the budget of the generation
+     * @return the puzzle if it was FOUND, or why the budget ran out
+     * @throws IllegalStateException if the default generator is misconfigured
+     */
+    public static SearchResult<SudokuPuzzle> create(Difficulty difficulty, long seed, Budget budget)
+            throws IllegalStateException {
+        SudokuPuzzle puzzle = new SudokuPuzzle();
+        SearchResult.Status status = puzzle.generate(difficulty, seed, budget);
+
+        return new SearchResult<>(status, status == SearchResult.Status.FOUND ? puzzle : null);
+    }
+
+    /**
+     * Generates puzzles until one is at a difficulty level.
+     * @param difficulty the difficulty level we want the puzzle to be at
+     * @param seed the seed of the random number generator used to pick the seed of each attempt
+     * @param budget the budget of the generation
+     * @return FOUND once a puzzle is at the level, or why the budget ran out
+     * @throws IllegalStateException if the default generator is misconfigured
+     */
+    private SearchResult.Status generate(Difficulty difficulty, long seed, Budget budget)
+            throws IllegalStateException {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        PuzzleGenerator generator = difficulty.getGenerator();
+        DifficultyGrader grader = DifficultyGrader.forCurrentThread();
+        MetricsListener listener = Metrics.listener();
+        int attempts = 0;
+
+        // Some boards cannot be cut down far enough, and most puzzles are not at the level, so keep trying until one
+        // works
+        while (true) {
+            attempts++;
+            try {
+                SearchResult.Status status = generate(generator, 3, difficulty.getNumbersLeft(), seeds.nextLong(),
+                        budget);
+                // If the budget ran out, give up; if the board could not be cut down far enough, try another
+                if (status == SearchResult.Status.BUDGET_EXCEEDED || status == SearchResult.Status.CANCELLED)
+                    return status;
+                else if (status == SearchResult.Status.NOT_FOUND)
+                    continue;
+
+                long start = listener == null ? 0 : System.nanoTime();
+                Grade grade = grader.grade(puzzle);
+                if (listener != null)
+                    listener.phaseFinished(MetricsListener.Phase.GRADE, System.nanoTime() - start);
+
+                if (difficulty.contains(grade))
+                    break;
+            } catch (IllegalArgumentException ignored) {}
+        }
+
+        if (listener != null)
+            listener.puzzleFinished(difficulty, attempts);
+
+        return SearchResult.Status.FOUND;
+    }
+
+    /**
+     * Constructs a sudoku puzzle from a given solution and puzzle.
+     * @param puzzle the unfilled valid board
+     * @param solution the filled, valid board to make a puzzle from
+     * @throws IllegalArgumentException if the solution is invalid or not filled completely, or if the puzzle and
+     * solution do not match
+     */
+    public SudokuPuzzle(SudokuBoard puzzle, SudokuBoard solution) throws IllegalArgumentException {
+        // Verify the solution and puzzle is valid and the solution is full
+        if (!solution.isFull() || !solution.isValid() || !puzzle.isValid())
+            throw new IllegalArgumentException("Solution is not full or solution is invalid");
+        else if (puzzle.getBoxSize() != solution.getBoxSize())
+            throw new IllegalArgumentException("Puzzle and solution are different sizes");
+
+        // Verify that the solution and puzzle match if they have an entry
+        for (int i = 0; i < solution.getSize(); i++) {
+            for (int j = 0; j < solution.getSize(); j++) {
+                // If an entry differs and the puzzle entry is not just empty, throw an exception
+                if (solution.getCell(i, j) != puzzle.getCell(i, j) && puzzle.getCell(i, j) != 0)
+                    throw new IllegalArgumentException("Puzzle and solution do not match");
+            }
+        }
+
+        this.puzzle = new SudokuBoard(puzzle);
+        this.solution = new SudokuBoard(solution);
+        countCells();
+    }
+
+    /**
+     * Generates the puzzle and its solution from a seed.
+     * @param generator the generator to make the puzzle with
+     * @param boxSize the width and height of each box of the puzzle
+     * @param numbersLeft the amount of numbers we want left on the board
+     * @param seed the seed of the random number generator used to make the puzzle
+     * @param budget the budget of the generation
+     * @return FOUND if the puzzle was made, NOT_FOUND if the numbers left is too small for the board generated, or
+     * why the budget ran out
+     * @throws IllegalArgumentException if the box size is not supported or the numbers left is not less than the
+     * amount of cells (or if the generator cannot cut the board down, for generators which throw instead)
+     */
+    private SearchResult.Status generate(PuzzleGenerator generator, int boxSize, int numbersLeft, long seed,
+                                         Budget budget) throws IllegalArgumentException {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        solution = generator.generateBoard(boxSize, random);
+        SearchResult<SudokuBoard> result = generator.generatePuzzle(solution, numbersLeft, random, budget);
+        if (!result.isFound())
+            return result.getStatus();
+
+        puzzle = result.getValue();
+
+        this.seed = seed;
+        generated = true;
+
+        // Shuffle the rows, columns, and numbers around to make it as random as possible
+        MetricsListener listener = Metrics.listener();
+        long start = listener == null ? 0 : System.nanoTime();
+
+        BoardTransform transform = BoardTransform.random(boxSize, random);
+        solution = transform.apply(solution);
+        puzzle = transform.apply(puzzle);
+
+        if (listener != null)
+            listener.phaseFinished(MetricsListener.Phase.TRANSFORM, System.nanoTime() - start);
+        countCells();
+
+        return SearchResult.Status.FOUND;
+    }
+
+    /**
+     * Counts the empty cells and the placements of each number in the puzzle. This is only done once the puzzle is
+     * made; after that, guess keeps the counts up to date.
+     */
+    private void countCells() {
+        int size = puzzle.getSize();
+        emptyCells = 0;
+        placed = new int[size + 1];
+
+        for (int i = 0; i < size * size; i++) {
+            int cellNum = puzzle.getCell(i);
+            if (cellNum == 0)
+                emptyCells++;
+            else
+                placed[cellNum]++;
+        }
+    }
+
+    /**
+     * @return a copy of the puzzle as it currently is (with any correct guesses filled in)
+     */
+    public SudokuBoard getPuzzle() {
+        return new SudokuBoard(puzzle);
+    }
+
+    /**
+     * @return a copy of the solution of the puzzle
+     */
+    public SudokuBoard getSolution() {
+        return new SudokuBoard(solution);
+    }
+
+    /**
+     * @return the seed the puzzle was generated from
+     * @throws IllegalStateException if the puzzle was constructed from a given puzzle and solution
+     */
+    public long getSeed() throws IllegalStateException {
+        if (!generated)
+            throw new IllegalStateException("Puzzle was not generated from a seed");
+
+        return seed;
+    }
+
+    /**
+     * Guesses a cell is a certain number. Guesses are compared against the solution to see if the guess is correct.
+     * Only correct guesses (those that return true) will be placed onto the puzzle.
+     * @param row the row of the cell we want to guess
+     * @param col the column of the cell we want to guess
+     * @param cell the cell number we want to guess
+     * @return if the guess was correct or not
+     * @throws IndexOutOfBoundsException if the row or column is out of bounds
+     * @throws IllegalArgumentException if the cell is already full, or if the cell is not 1-9
+     */
+    public boolean guess(int row, int col, int cell) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (solution.getCell(row, col) == cell) {
+            // If the cell was already filled in, it was already counted
+            if (puzzle.getCell(row, col) == 0) {
+                emptyCells--;
+                placed[cell]++;
+            }
+
+            puzzle.setCell(row, col, cell);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param row the row of the cell to be guessed
+     * @param col the column of the cell to be guessed
+     * @return if the guess is valid (if the cell is empty)
+     */
+    public boolean validGuess(int row, int col) throws IndexOutOfBoundsException, IllegalArgumentException {
+        return puzzle.getCell(row, col) == 0;
+    }
+    /**
+     * @return if the puzzle has been solved
+     */
+    public boolean isSolved() {
+        // Only correct guesses are placed, so once every cell is filled the puzzle matches the solution
+        return emptyCells == 0;
+    }
+
+    /**
+     * @param number a number 1 - size
+     * @return if every copy of the number has been placed in the puzzle
+     * @throws IllegalArgumentException if the number is not 1 - size
+     */
+    public boolean isSolved(int number) throws IllegalArgumentException {
+        if (number < 1 || number >= placed.length)
+            throw new IllegalArgumentException("Number must be between 1 and " + (placed.length - 1));
+
+        return placed[number] == puzzle.getSize();
+    }
+
+    /**
+     * @return how many cells of the puzzle are still empty
+     */
+    public int getEmptyCells() {
+        return emptyCells;
+    }
+
+    /**
+     * Makes a new puzzle by transforming this one. The new puzzle is as hard as this one and still has only one
+     * solution, but looks different, so many distinct puzzles can be made from one generated puzzle without
+     * generating again. (Guesses already made on this puzzle carry over.)
+     * @param transform the transform to apply to the puzzle and its solution
+     * @return the transformed puzzle
+     */
+    public SudokuPuzzle transformed(BoardTransform transform) {
+        return new SudokuPuzzle(transform.apply(puzzle), transform.apply(solution));
+    }
+
+    /**
+     * @return a String representation of the board with columns separated by spaces and rows by newlines
+     */
+    @Override
+    public String toString() {
+        // The numbers placed are already counted, so the board doesn't have to count them again
+        return puzzle.toString(placed);
+    }
+
+    /**
+     * @return a String representation of the solution
+     */
+    public String solveToString() {
+        return solution.toString();
+    }
+}
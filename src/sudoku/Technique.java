@@ -0,0 +1,71 @@
+package sudoku;
+
+/**
+ * The solving techniques a person might use on a sudoku puzzle, from easiest to hardest. Each technique has a weight
+ * which is added to the score of a puzzle each time the technique is needed.
+ * @see DifficultyGrader
+ * @author Nathan Moore
+ * @author Hudson Hadley
+ */
+public enum Technique {
+    /**
+     * A number that only fits in one cell of a row, column, or box.
+     */
+    HIDDEN_SINGLE(1),
+    /**
+     * A cell that only has one number that fits.
+     */
+    NAKED_SINGLE(2),
+    /**
+     * A number that, within a box, only fits in one row or column, so it can be ruled out of the rest of that row or
+     * column.
+     */
+    POINTING(5),
+    /**
+     * A number that, within a row or column, only fits in one box, so it can be ruled out of the rest of that box.
+     */
+    BOX_LINE(6),
+    /**
+     * Two cells in a unit which only have the same two numbers, so those numbers can be ruled out of the rest of the
+     * unit.
+     */
+    NAKED_PAIR(8),
+    /**
+     * Two numbers which only fit in the same two cells of a unit, so every other number can be ruled out of those
+     * cells.
+     */
+    HIDDEN_PAIR(10),
+    /**
+     * Three cells in a unit which only have three numbers between them, so those numbers can be ruled out of the rest
+     * of the unit.
+     */
+    NAKED_TRIPLE(14),
+    /**
+     * A number which only fits in the same two columns of two rows (or the same two rows of two columns), so it can be
+     * ruled out of the rest of those columns (or rows).
+     */
+    X_WING(20),
+    /**
+     * None of the techniques above help, so the puzzle needs trial and error.
+     */
+    GUESSING(50);
+
+    /**
+     * How much each use of the technique adds to the score of a puzzle.
+     */
+    private final int weight;
+
+    /**
+     * @param weight how much each use of the technique adds to the score of a puzzle
+     */
+    Technique(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * @return how much each use of the technique adds to the score of a puzzle
+     */
+    public int getWeight() {
+        return weight;
+    }
+}